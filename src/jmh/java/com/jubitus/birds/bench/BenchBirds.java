@@ -0,0 +1,78 @@
+package com.jubitus.birds.bench;
+
+import com.jubitus.birds.client.BirdStore;
+import com.jubitus.birds.client.ClientBird;
+import com.jubitus.birds.client.util.Flock;
+import com.jubitus.birds.client.util.FlockTable;
+import com.jubitus.birds.species.BirdSpecies;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Random;
+
+/**
+ * Shared fixtures: a default species without sounds or textures, and stores filled with flocks of
+ * {@link #FLOCK_SIZE} birds scattered over the stub world.
+ */
+final class BenchBirds {
+
+    static final int FLOCK_SIZE = 8;
+    // Side of the square the flocks are spread over, centred on the origin
+    static final double AREA = 512.0;
+
+    // Camera and distances for full simulation steps: with the flocks spread over AREA around the camera, every
+    // tier (near, mid, far) and flock impostors all occur
+    static final double CAM_X = 0.0, CAM_Y = 80.0, CAM_Z = 0.0;
+    static final double LOD_NEAR = 64.0;
+    static final double LOD_FAR = 160.0;
+    static final double IMPOSTOR_DIST = 200.0;
+
+    private BenchBirds() {
+    }
+
+    static BirdSpecies species() {
+        BirdSpecies s = new BirdSpecies();
+        s.name = "bench";
+        s.soundKey = null;
+        s.soundsEnabled = false;
+        s.clampAndFix();
+        return s;
+    }
+
+    /**
+     * Adds {@code count} birds to {@code store} (every {@link #FLOCK_SIZE} consecutive birds share a flock)
+     * and runs their spawn initialisation against {@code world}.
+     */
+    static void populate(BirdStore store, StubBirdWorld world, BirdSpecies species, int count, long seed) {
+        Random r = new Random(seed);
+        double cx = 0, cz = 0;
+        for (int i = 0; i < count; i++) {
+            if (i % FLOCK_SIZE == 0) {
+                cx = (r.nextDouble() - 0.5) * AREA;
+                cz = (r.nextDouble() - 0.5) * AREA;
+            }
+            double x = cx + r.nextGaussian() * 6.0;
+            double z = cz + r.nextGaussian() * 6.0;
+            double y = world.getHeight(x, z) + species.preferredAboveGround + r.nextGaussian() * 4.0;
+
+            double a = r.nextDouble() * Math.PI * 2;
+            Vec3d dir = new Vec3d(Math.cos(a), 0, Math.sin(a));
+            double speed = species.minSpeed + r.nextDouble() * (species.maxSpeed - species.minSpeed);
+
+            ClientBird b = new ClientBird(species, seed * 31L + i + 1, new Vec3d(x, y, z), dir, speed);
+            b.flockId = (i / FLOCK_SIZE) + 1L;
+            if (store.add(b) >= 0) b.onSpawn(world);
+        }
+    }
+
+    /**
+     * Adds a {@link Flock} for every flock in {@code store}, heading the way its first member flies.
+     */
+    static void flocks(FlockTable flocks, BirdStore store) {
+        for (int i = 0; i < store.size(); i++) {
+            long id = store.get(i).flockId;
+            if (id != 0L && !flocks.contains(id)) {
+                flocks.put(new Flock(id, new Vec3d(store.fwdX[i], 0, store.fwdZ[i])));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.jubitus.birds.bench;
+
+import com.jubitus.birds.client.util.BirdOrientation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BirdOrientation#updateFromVelocity(double, double, double, float, float, float)} along a wandering
+ * velocity sequence (the same per-tick pattern a bird produces).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BirdOrientationBench {
+
+    private static final int STEPS = 1024;
+
+    private final double[] vx = new double[STEPS], vy = new double[STEPS], vz = new double[STEPS];
+    private final BirdOrientation orientation = new BirdOrientation();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random r = new Random(42L);
+        double a = 0;
+        for (int i = 0; i < STEPS; i++) {
+            a += r.nextGaussian() * 0.08;
+            double speed = 0.35 + r.nextDouble() * 0.25;
+            vx[i] = Math.cos(a) * speed;
+            vy[i] = r.nextGaussian() * 0.03;
+            vz[i] = Math.sin(a) * speed;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void updateFromVelocity(Blackhole bh) {
+        BirdOrientation o = orientation;
+        for (int i = 0; i < STEPS; i++) {
+            o.updateFromVelocity(vx[i], vy[i], vz[i], 6.0f, 4.0f, 8.0f);
+            bh.consume(o.yawDeg + o.pitchDeg + o.rollDeg);
+        }
+    }
+}
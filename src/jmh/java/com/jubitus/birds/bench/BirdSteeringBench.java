@@ -0,0 +1,57 @@
+package com.jubitus.birds.bench;
+
+import com.jubitus.birds.client.util.BirdSteering;
+import com.jubitus.birds.client.util.MutableVec3d;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BirdSteering#limitTurnXZ(MutableVec3d, MutableVec3d, double)} over random heading pairs, a mix of
+ * turns inside and beyond the limit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BirdSteeringBench {
+
+    private static final int PAIRS = 1024;
+    private static final double MAX_TURN = Math.toRadians(4.0);
+
+    private final double[] fx = new double[PAIRS], fy = new double[PAIRS], fz = new double[PAIRS];
+    private final double[] dx = new double[PAIRS], dy = new double[PAIRS], dz = new double[PAIRS];
+    private final MutableVec3d forward = new MutableVec3d();
+    private final MutableVec3d desired = new MutableVec3d();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random r = new Random(42L);
+        for (int i = 0; i < PAIRS; i++) {
+            double a = r.nextDouble() * Math.PI * 2;
+            // Mostly small corrections, some sharp turns
+            double turn = (r.nextDouble() < 0.75) ? r.nextGaussian() * MAX_TURN : r.nextGaussian() * 1.5;
+            fx[i] = Math.cos(a);
+            fy[i] = r.nextGaussian() * 0.05;
+            fz[i] = Math.sin(a);
+            dx[i] = Math.cos(a + turn);
+            dy[i] = r.nextGaussian() * 0.05;
+            dz[i] = Math.sin(a + turn);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void limitTurnXZ(Blackhole bh) {
+        for (int i = 0; i < PAIRS; i++) {
+            forward.set(fx[i], fy[i], fz[i]);
+            desired.set(dx[i], dy[i], dz[i]);
+            BirdSteering.limitTurnXZ(forward, desired, MAX_TURN);
+            bh.consume(forward.x + forward.z);
+        }
+    }
+}
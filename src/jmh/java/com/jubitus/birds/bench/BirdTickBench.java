@@ -0,0 +1,46 @@
+package com.jubitus.birds.bench;
+
+import com.jubitus.birds.client.BirdStore;
+import com.jubitus.birds.client.util.SpatialHash;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulation tick for the whole population: index rebuild, then {@code ClientBird.tick} (steering,
+ * boids, altitude probes, obstacle rays, commit) for every bird over the synthetic height map.
+ * <p>
+ * Flock-level steering ({@code Flock.tick}) is left out, so flock members get no shared heading.
+ * The birds keep flying between invocations, like they do in game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BirdTickBench {
+
+    @Param({"100", "1000", "10000"})
+    public int birds;
+
+    private final BirdStore store = new BirdStore();
+    private final SpatialHash spatial = new SpatialHash(24);
+    private StubBirdWorld world;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = new StubBirdWorld(0, 80, 0);
+        BenchBirds.populate(store, world, BenchBirds.species(), birds, 42L);
+    }
+
+    @Benchmark
+    public BirdStore tick() {
+        world.advance();
+        spatial.rebuild(store);
+        for (int i = 0, n = store.size(); i < n; i++) {
+            store.get(i).tick(world, null, spatial);
+        }
+        return store;
+    }
+}
@@ -0,0 +1,89 @@
+package com.jubitus.birds.bench;
+
+import com.jubitus.birds.client.util.CellBiomeCache;
+import net.minecraft.world.biome.Biome;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Checks how {@link CellBiomeCache} treats spawn cells whose centre chunk isn't loaded yet: it samples within reach
+ * of the player, reports the sample as not exact and doesn't keep it, then reads and keeps the real biome once the
+ * chunk is there.
+ * <p>
+ * Run with {@code ./gradlew checkCellBiomes}; exits with status 1 on the first failed expectation.
+ */
+public final class CellBiomeCheck {
+
+    private static final int CELL = 64;
+    private static final double REACH = 112.0;
+
+    private CellBiomeCheck() {
+    }
+
+    public static void main(String[] args) {
+        StubSource source = new StubSource();
+        CellBiomeCache cache = new CellBiomeCache();
+
+        // Loaded centre next to the player: exact and kept
+        source.load(32 >> 4, 32 >> 4);
+        cache.get(source, 0, 0, CELL, 0, 0, REACH);
+        expect(cache.lastWasExact(), "loaded centre is exact");
+        expect(source.sampledX == 32 && source.sampledZ == 32, "loaded centre is sampled at the centre");
+        source.samples = 0;
+        cache.get(source, 0, 0, CELL, 0, 0, REACH);
+        expect(source.samples == 0, "loaded centre is kept");
+
+        // Unloaded centre 10 cells out: stand-in within reach, not exact, not kept
+        source.samples = 0;
+        cache.get(source, 10, 0, CELL, 0, 0, REACH);
+        expect(!cache.lastWasExact(), "unloaded centre is not exact");
+        double d = Math.sqrt((double) source.sampledX * source.sampledX + (double) source.sampledZ * source.sampledZ);
+        expect(d <= REACH + 1.0, "unloaded centre is sampled within reach (was " + d + ")");
+        expect(source.sampledX > 0, "unloaded centre is sampled towards the centre");
+        cache.get(source, 10, 0, CELL, 0, 0, REACH);
+        expect(source.samples == 2 && !cache.lastWasExact(), "unloaded centre is not kept");
+
+        // The chunk arrives: exact from then on
+        source.load(672 >> 4, 32 >> 4);
+        source.samples = 0;
+        cache.get(source, 10, 0, CELL, 0, 0, REACH);
+        expect(cache.lastWasExact() && source.sampledX == 672 && source.sampledZ == 32, "loaded later is exact");
+        cache.get(source, 10, 0, CELL, 0, 0, REACH);
+        expect(source.samples == 1 && cache.lastWasExact(), "loaded later is kept");
+
+        System.out.println("CellBiomeCache: all checks passed");
+    }
+
+    private static void expect(boolean ok, String what) {
+        if (ok) return;
+        System.err.println("FAILED: " + what);
+        System.exit(1);
+    }
+
+    /**
+     * Chunks are loaded only when told; biomes are all null (the check only looks at where they are read).
+     */
+    private static final class StubSource implements CellBiomeCache.Source {
+        private final Set<Long> loaded = new HashSet<>();
+        int samples;
+        int sampledX, sampledZ;
+
+        void load(int chunkX, int chunkZ) {
+            loaded.add(((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL));
+        }
+
+        @Override
+        public boolean isChunkLoaded(int chunkX, int chunkZ) {
+            return loaded.contains(((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL));
+        }
+
+        @Override
+        public Biome getBiome(int x, int z) {
+            samples++;
+            sampledX = x;
+            sampledZ = z;
+            return null;
+        }
+    }
+}
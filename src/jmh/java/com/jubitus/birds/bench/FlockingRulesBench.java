@@ -0,0 +1,46 @@
+package com.jubitus.birds.bench;
+
+import com.jubitus.birds.client.BirdStore;
+import com.jubitus.birds.client.util.FlockingRules;
+import com.jubitus.birds.client.util.MutableVec3d;
+import com.jubitus.birds.client.util.SpatialHash;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FlockingRules#boidsSteer} for every bird of the store against a prebuilt index.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlockingRulesBench {
+
+    @Param({"100", "1000", "10000"})
+    public int birds;
+
+    private final BirdStore store = new BirdStore();
+    private final SpatialHash grid = new SpatialHash(24);
+    private final SpatialHash.Query query = new SpatialHash.Query();
+    private final FlockingRules.Params params = new FlockingRules.Params();
+    private final MutableVec3d out = new MutableVec3d();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StubBirdWorld world = new StubBirdWorld(0, 80, 0);
+        BenchBirds.populate(store, world, BenchBirds.species(), birds, 42L);
+        grid.rebuild(store);
+    }
+
+    @Benchmark
+    public void boidsSteer(Blackhole bh) {
+        for (int i = 0, n = store.size(); i < n; i++) {
+            FlockingRules.boidsSteer(store.get(i), grid, query, params, out);
+            bh.consume(out.x + out.y + out.z);
+        }
+    }
+}
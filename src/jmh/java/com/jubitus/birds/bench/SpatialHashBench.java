@@ -0,0 +1,53 @@
+package com.jubitus.birds.bench;
+
+import com.jubitus.birds.client.BirdStore;
+import com.jubitus.birds.client.ClientBird;
+import com.jubitus.birds.client.util.SpatialHash;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick neighbour index cost: a full {@link SpatialHash#rebuild}, and one boids-radius query per bird.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialHashBench {
+
+    @Param({"100", "1000", "10000"})
+    public int birds;
+
+    private final BirdStore store = new BirdStore();
+    private final SpatialHash grid = new SpatialHash(24);
+    private final SpatialHash.Query query = new SpatialHash.Query();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StubBirdWorld world = new StubBirdWorld(0, 80, 0);
+        BenchBirds.populate(store, world, BenchBirds.species(), birds, 42L);
+        grid.rebuild(store);
+    }
+
+    @Benchmark
+    public SpatialHash rebuild() {
+        grid.rebuild(store);
+        return grid;
+    }
+
+    @Benchmark
+    public int queryAll() {
+        int visited = 0;
+        for (int i = 0, n = store.size(); i < n; i++) {
+            ClientBird b = store.get(i);
+            query.begin(grid, b.flockId, store.x[i], store.y[i], store.z[i], 48.0, 0.0);
+            for (int e = query.next(); e >= 0; e = query.next()) {
+                visited++;
+            }
+        }
+        return visited;
+    }
+}
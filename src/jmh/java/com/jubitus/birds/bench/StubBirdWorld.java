@@ -0,0 +1,86 @@
+package com.jubitus.birds.bench;
+
+import com.jubitus.birds.client.ClientBird;
+import com.jubitus.birds.client.sound.BirdCallType;
+import com.jubitus.birds.client.util.BirdWorld;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * {@link BirdWorld} with no game behind it: a synthetic rolling height map (tiled every {@link #SIZE} blocks),
+ * solid below the surface and air above, fixed time and viewer, and calls dropped.
+ */
+public class StubBirdWorld implements BirdWorld {
+
+    public static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private final int[] heights = new int[SIZE * SIZE];
+    private final double viewerX, viewerY, viewerZ;
+    private long totalWorldTime = 6000L;
+
+    public StubBirdWorld(double viewerX, double viewerY, double viewerZ) {
+        this.viewerX = viewerX;
+        this.viewerY = viewerY;
+        this.viewerZ = viewerZ;
+
+        // Hills on a few scales so rays and altitude probes see varied terrain
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                double h = 64.0
+                        + 14.0 * Math.sin(x * (2 * Math.PI / 256.0))
+                        + 10.0 * Math.cos(z * (2 * Math.PI / 128.0))
+                        + 5.0 * Math.sin((x + z) * (2 * Math.PI / 32.0));
+                heights[z * SIZE + x] = (int) h;
+            }
+        }
+    }
+
+    /**
+     * Advances the clock (calls and timers read it).
+     */
+    public void advance() {
+        totalWorldTime++;
+    }
+
+    @Override
+    public long getTotalWorldTime() {
+        return totalWorldTime;
+    }
+
+    @Override
+    public boolean isDaytime() {
+        return true;
+    }
+
+    @Override
+    public int getHeight(int x, int z) {
+        return heights[(z & MASK) * SIZE + (x & MASK)];
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z, BlockPos.MutableBlockPos cursor) {
+        if (y < 0 || y >= 256) return false;
+        return y < getHeight(x, z);
+    }
+
+    @Override
+    public double getViewerX() {
+        return viewerX;
+    }
+
+    @Override
+    public double getViewerY() {
+        return viewerY;
+    }
+
+    @Override
+    public double getViewerZ() {
+        return viewerZ;
+    }
+
+    @Override
+    public void playCall(ClientBird bird, BirdCallType type, SoundEvent event, float volume, float pitch,
+                         float maxDist, float fadeStart, float fadePower) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.jubitus.birds.bench;
+
+import com.jubitus.birds.client.BirdSimulation;
+import com.jubitus.birds.client.BirdStore;
+import com.jubitus.birds.client.ClientBird;
+import com.jubitus.birds.client.util.FlockTable;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Asserts that a warmed-up simulation tick allocates nothing: the step the game runs ({@link BirdSimulation}:
+ * flock impostors, neighbour index, flock decisions, LOD tiers, obstacle ray scheduling, compute and commit)
+ * over real flocks, measured with the per-thread allocation counter of the JVM over {@link #MEASURED_TICKS}
+ * ticks. The camera sits among the flocks so that near, mid, far and impostor birds all take part; with nothing
+ * despawning them the flocks drift apart, so the population is spawned afresh every {@link #WINDOW} ticks, outside
+ * the measurement. The tick runs sequentially ({@code parallelTick} off, its fork-join tasks are allocated per step
+ * by design).
+ * <p>
+ * Run with {@code ./gradlew checkTickAllocation}; exits with status 1 and the byte count if any tick allocated.
+ * Optional arguments: bird count, warm-up ticks (enough for the JIT to compile and inline the tick).
+ */
+public final class TickAllocationCheck {
+
+    private static final int MEASURED_TICKS = 1000;
+    // Ticks between fresh populations, short enough that every tier stays populated
+    private static final int WINDOW = 200;
+
+    private TickAllocationCheck() {
+    }
+
+    public static void main(String[] args) {
+        int birds = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+        int warmup = (args.length > 1) ? Integer.parseInt(args[1]) : 20000;
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            System.err.println("Thread allocation counter not available on this JVM");
+            System.exit(2);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        StubBirdWorld world = new StubBirdWorld(BenchBirds.CAM_X, BenchBirds.CAM_Y, BenchBirds.CAM_Z);
+        BirdStore store = new BirdStore();
+        FlockTable flocks = new FlockTable();
+        BirdSimulation simulation = new BirdSimulation(store, flocks);
+
+        for (int t = 0; t < warmup; t++) {
+            if (t % WINDOW == 0) respawn(world, store, flocks, simulation, birds);
+            tick(world, simulation);
+        }
+
+        // Reading the counter may itself allocate; take that off the result
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+
+        // Bird-ticks per tier at the end of each window: near, mid, far, in a flock impostor
+        long[] tiers = new long[4];
+        long allocated = 0;
+        for (int done = 0; done < MEASURED_TICKS; ) {
+            respawn(world, store, flocks, simulation, birds);
+            int ticks = Math.min(WINDOW, MEASURED_TICKS - done);
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int t = 0; t < ticks; t++) {
+                tick(world, simulation);
+            }
+            allocated += threads.getThreadAllocatedBytes(thread) - before - overhead;
+            done += ticks;
+
+            for (int i = 0; i < store.size(); i++) {
+                ClientBird b = store.get(i);
+                tiers[b.isInFlockImpostor() ? 3 : b.lod.ordinal()]++;
+            }
+        }
+
+        System.out.println("birds per tier at window ends: near " + tiers[0] + ", mid " + tiers[1] + ", far "
+                + tiers[2] + ", in flock impostors " + tiers[3]);
+
+        System.out.println(birds + " birds, " + MEASURED_TICKS + " ticks after " + warmup + " warm-up ticks: "
+                + allocated + " bytes allocated (" + (allocated / (double) MEASURED_TICKS) + " B/tick)");
+        if (allocated > 0) System.exit(1);
+    }
+
+    private static void respawn(StubBirdWorld world, BirdStore store, FlockTable flocks, BirdSimulation simulation,
+                                int birds) {
+        store.clear();
+        flocks.clear();
+        simulation.clear();
+        BenchBirds.populate(store, world, BenchBirds.species(), birds, 42L);
+        BenchBirds.flocks(flocks, store);
+    }
+
+    private static void tick(StubBirdWorld world, BirdSimulation simulation) {
+        world.advance();
+        simulation.step(world, BenchBirds.CAM_X, BenchBirds.CAM_Y, BenchBirds.CAM_Z,
+                BenchBirds.IMPOSTOR_DIST, BenchBirds.LOD_NEAR, BenchBirds.LOD_FAR);
+    }
+}
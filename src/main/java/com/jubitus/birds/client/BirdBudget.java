@@ -0,0 +1,119 @@
+package com.jubitus.birds.client;
+
+import com.jubitus.birds.client.config.BirdConfig;
+
+/**
+ * Closed-loop bird budget: keeps the client-thread time spent on birds per client tick near {@code birdBudgetMs}
+ * by scaling the bird cap, the LOD distances and the spawn radius. That time is the simulation step when it runs
+ * on the client thread, or with the async simulation the wait for its step plus the snapshot hand-off (work done
+ * on the simulation thread meanwhile doesn't count), and the rendering of every frame since the last tick.
+ * <p>
+ * The cost is smoothed and compared against a dead band. Over the target for {@link #DOWN_TICKS} ticks in a row
+ * shrinks the scale; under {@link #LOW_WATER} of it for {@link #UP_TICKS} ticks grows it again. Shrinking reacts
+ * quickly and growing slowly, so a heavy moment is handled fast and the count doesn't hunt around the limit.
+ * The configured {@code maxBirdsAroundPlayer} is the starting point (scale 1); a fast machine may go above it.
+ */
+public class BirdBudget {
+
+    private static final double MIN_SCALE = 0.125;
+    private static final double MAX_SCALE = 2.0;
+    private static final double SMOOTHING = 0.1;   // EMA weight of the newest tick
+    private static final double LOW_WATER = 0.7;   // grow only while under 70% of the target
+    private static final int DOWN_TICKS = 10;      // 0.5 s over budget -> shrink
+    private static final int UP_TICKS = 60;        // 3 s well under budget -> grow
+    private static final double DOWN_STEP = 0.85;
+    private static final double UP_STEP = 1.05;
+    private static final int MIN_CAP = 8;
+    private static final int MAX_CAP = 2048;       // same as the config range
+    private static final int MAX_RADIUS_CELLS = 8; // same as the config range
+
+    private double scale = 1.0;
+    private double avgNanos;
+    private long renderNanos;
+    private int overTicks, underTicks;
+
+    public static boolean isEnabled() {
+        return BirdConfig.birdBudgetMs > 0;
+    }
+
+    /**
+     * Render cost of one frame (summed until the next {@link #update}).
+     */
+    public void addRenderNanos(long nanos) {
+        renderNanos += nanos;
+    }
+
+    /**
+     * Once per client tick, with the client-thread cost of the simulation since the last update.
+     */
+    public void update(long simNanos) {
+        long cost = simNanos + renderNanos;
+        renderNanos = 0L;
+
+        if (!isEnabled()) {
+            scale = 1.0;
+            avgNanos = cost;
+            overTicks = underTicks = 0;
+            return;
+        }
+
+        avgNanos += (cost - avgNanos) * SMOOTHING;
+        double target = BirdConfig.birdBudgetMs * 1.0e6;
+        if (avgNanos > target) {
+            underTicks = 0;
+            if (++overTicks >= DOWN_TICKS) {
+                scale = Math.max(MIN_SCALE, scale * DOWN_STEP);
+                overTicks = 0;
+            }
+        } else if (avgNanos < target * LOW_WATER) {
+            overTicks = 0;
+            if (++underTicks >= UP_TICKS) {
+                scale = Math.min(MAX_SCALE, scale * UP_STEP);
+                underTicks = 0;
+            }
+        } else {
+            overTicks = underTicks = 0;
+        }
+    }
+
+    public void reset() {
+        scale = 1.0;
+        avgNanos = 0.0;
+        renderNanos = 0L;
+        overTicks = underTicks = 0;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double getAverageMillis() {
+        return avgNanos / 1.0e6;
+    }
+
+    /**
+     * Effective bird cap.
+     */
+    public int cap() {
+        int max = BirdConfig.maxBirdsAroundPlayer;
+        if (!isEnabled()) return max;
+        int cap = (int) Math.round(max * scale);
+        return Math.max(Math.min(MIN_CAP, max), Math.min(MAX_CAP, cap));
+    }
+
+    /**
+     * Multiplier for the LOD distances: they shrink with the budget (down to half) but never grow past the config.
+     */
+    public double lodScale() {
+        return Math.min(1.0, 0.5 + 0.5 * scale);
+    }
+
+    /**
+     * Effective spawn radius (cells). The spawn area goes with the radius squared, so it follows {@code sqrt(scale)}.
+     */
+    public int spawnRadius(int radiusCells) {
+        if (!isEnabled() || radiusCells <= 0) return radiusCells;
+        int r = (int) Math.round(radiusCells * Math.sqrt(scale));
+        return Math.max(1, Math.min(MAX_RADIUS_CELLS, r));
+    }
+}
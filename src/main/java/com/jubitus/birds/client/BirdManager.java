@@ -1,29 +1,75 @@
 package com.jubitus.birds.client;
 
+import com.jubitus.birds.JubitusBirds;
 import com.jubitus.birds.client.config.BirdConfig;
 import com.jubitus.birds.client.config.JubitusBirdsConfig;
 import com.jubitus.birds.client.sound.BirdSoundSystem;
-import com.jubitus.birds.client.util.Flock;
+import com.jubitus.birds.client.util.CellBiomeCache;
 import com.jubitus.birds.client.util.FlockSpawner;
-import com.jubitus.birds.client.util.SpatialHash;
+import com.jubitus.birds.client.util.FlockTable;
+import com.jubitus.birds.client.util.LiveBirdWorld;
+import com.jubitus.birds.client.util.SnapshotBirdWorld;
+import com.jubitus.birds.client.util.SpawnBatch;
+import com.jubitus.birds.client.util.SpawnCellCache;
+import com.jubitus.birds.client.util.TerrainHeightCache;
+import com.jubitus.birds.render.BirdInstancedRenderer;
+import com.jubitus.birds.render.BirdTextureAtlas;
 import com.jubitus.birds.render.RenderBird;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongPredicate;
 
 public class BirdManager {
+    // birds this far past the fog end still go into the render snapshot (camera moves between ticks)
+    private static final double SNAPSHOT_MARGIN = 16.0;
+    // birds removed per tick at most when over the adaptive cap
+    private static final int TRIM_PER_TICK = 8;
     public static BirdManager INSTANCE;
-    private final Map<Long, ClientBird> birdsById = new HashMap<>();
+    private final BirdStore store = new BirdStore();
 
     // Flocking support
-    private final Map<Long, Flock> flocksById = new HashMap<>();
-    private final SpatialHash spatial = new SpatialHash(24);
+    private final FlockTable flocks = new FlockTable();
+    private final BirdSimulation simulation = new BirdSimulation(store, flocks);
+    // Ground heights for flight altitude control
+    private final TerrainHeightCache terrain = new TerrainHeightCache();
+    // Spawn cells already materialized in their current time window
+    private final SpawnCellCache spawnCells = new SpawnCellCache();
+    // Spawn descriptors of the current pass (reused)
+    private final SpawnBatch spawnBatch = new SpawnBatch();
+    private final CellBiomeCache cellBiomes = new CellBiomeCache();
+    private final LongPredicate knownBird = store::contains;
+    // What the renderer draws, published at the end of every client tick
+    private final BirdRenderSnapshot snapshot = new BirdRenderSnapshot();
+    // The simulation's view of the game: the client world directly, or a copy for the async thread
+    private final LiveBirdWorld liveWorld = new LiveBirdWorld(terrain);
+    private final SnapshotBirdWorld asyncWorld = new SnapshotBirdWorld();
+    // The copy follows chunk changes only while the async simulation uses it
+    private final TerrainHeightCache.Listener asyncInvalidate = asyncWorld::invalidateChunk;
+    private boolean asyncWired;
+    // Adaptive cap / LOD / spawn radius from the measured bird cost
+    private final BirdBudget budget = new BirdBudget();
+    // Client-thread cost of the last snapshot publish + async sync (counted into the next budget update)
+    private long handOffNanos;
+
+    // Async simulation: one thread, at most one step in flight (started at the end of a tick, collected at
+    // the start of the next one)
+    private ExecutorService simExecutor;
+    private Future<?> pendingStep;
 
     public BirdManager() {
         INSTANCE = this;
@@ -37,55 +83,169 @@ public class BirdManager {
         World world = mc.world;
         EntityPlayer player = mc.player;
         if (world == null || player == null) return;
+        terrain.bind(world);
+        liveWorld.setWorld(world);
+        long t = BirdProfiler.begin();
         BirdSoundSystem.tickCleanup();
+        long soundNanos = BirdProfiler.since(t);
         // --- VIEW BORDER + DESPAWN ---
         int viewChunks = mc.gameSettings.renderDistanceChunks;
         double viewBorder = viewChunks * 16.0;
         double despawnDist = viewBorder + BirdConfig.despawnBorderBuffer;
         double despawnDist2 = despawnDist * despawnDist;
 
-        // --- UPDATE SPATIAL HASH (neighbors) ---
-        spatial.clear();
-        for (ClientBird b : birdsById.values()) {
-            spatial.insert(b);
+        double camX = player.posX;
+        double camY = player.posY + player.getEyeHeight();
+        double camZ = player.posZ;
+
+        // --- SIMULATION STEP ---
+        // Async: the step started at the end of the last tick ran alongside the game; collect it and play its
+        // calls. Otherwise step right here. (Right after async is switched on there is no step for one tick.)
+        boolean async = BirdConfig.asyncSimulation;
+        double lodScale = budget.lodScale();
+        double lodNear = BirdConfig.lodNearDistance * lodScale;
+        double lodFar = lodFarDistance(mc) * lodScale;
+        double impostorDist = impostorDistance(mc, lodScale);
+        // The budget gets what the birds cost this thread: the inline step, or the wait for the async one
+        long birdStart = System.nanoTime();
+        long birdNanos;
+        if (awaitSimulation()) {
+            asyncWorld.drainCalls(world);
+            birdNanos = System.nanoTime() - birdStart;
+        } else if (!async) {
+            simulation.step(liveWorld, camX, camY, camZ, impostorDist, lodNear, lodFar);
+            birdNanos = simulation.getLastStepNanos();
+        } else {
+            birdNanos = 0L;
         }
-
-        // --- TICK FLOCKS (group decisions) ---
-        for (Flock f : flocksById.values()) {
-            f.tick(world);
+        if (async != asyncWired) wireAsyncWorld(async);
+        budget.update(birdNanos + handOffNanos);
+
+        // Dense slot iteration; removal swaps the last bird into slot i, so only advance when we keep it
+        t = BirdProfiler.begin();
+        int i = 0;
+        while (i < store.size()) {
+            ClientBird b = store.get(i);
+            double dx = store.x[i] - camX;
+            double dy = store.y[i] - camY;
+            double dz = store.z[i] - camZ;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (b.ageTicks > 60 && d2 > despawnDist2) {
+                BirdSoundSystem.stopForBird(b.getId());
+                store.removeAt(i);
+                continue;
+            }
+            i++;
         }
+        trimToCap(budget.cap(), camX, camY, camZ, player.getLook(1.0f));
 
-        // --- TICK + DESPAWN BIRDS ---
-        Vec3d cam = new Vec3d(player.posX, player.posY + player.getEyeHeight(), player.posZ);
+        // --- OPTIONAL: CLEAN UP EMPTY FLOCKS (keeps map small) ---
+        cleanupFlocks();
+        BirdProfiler.end(BirdProfiler.Phase.DESPAWN, t);
 
-        Iterator<Map.Entry<Long, ClientBird>> it = birdsById.entrySet().iterator();
-        while (it.hasNext()) {
-            ClientBird b = it.next().getValue();
+        // --- SPAWN (ONLY IF UNDER CAP) ---
+        t = BirdProfiler.begin();
+        spawnBirds(world, player);
+        BirdProfiler.end(BirdProfiler.Phase.SPAWN, t);
 
-            Vec3d flockForward = null;
-            if (b.flockId != 0L) {
-                Flock f = flocksById.get(b.flockId);
-                if (f != null) flockForward = f.getGroupForward();
-            }
+        t = BirdProfiler.begin();
+        BirdSoundSystem.tickCleanup();
+        BirdProfiler.record(BirdProfiler.Phase.SOUND, soundNanos + BirdProfiler.since(t));
 
-            List<ClientBird> neighbors = spatial.queryNearby(b.pos);
+        // --- PUBLISH RENDER SNAPSHOT ---
+        long handOffStart = System.nanoTime();
+        snapshot.publish(store, camX, camY, camZ, RenderBird.fogEndDistance(mc) + SNAPSHOT_MARGIN);
 
-            // ✅ CALL THE NEW TICK SIGNATURE
-            b.tick(world, flockForward, neighbors);
+        // --- NEXT ASYNC STEP (runs until the next tick's sync point) ---
+        if (async) {
+            asyncWorld.sync(world, terrain, camX, camY, camZ, store);
+            pendingStep = getSimExecutor().submit(
+                    () -> simulation.step(asyncWorld, camX, camY, camZ, impostorDist, lodNear, lodFar));
+        }
+        handOffNanos = System.nanoTime() - handOffStart;
+    }
 
-            double d2 = b.pos.squareDistanceTo(cam);
-            if (b.ageTicks > 60 && d2 > despawnDist2) {
-                BirdSoundSystem.stopForBird(b.getId());
-                it.remove();
+    /**
+     * Switches the async copy's chunk tracking on or off (simulation idle). Off, nothing is synced any more, so
+     * the copy is dropped instead of collecting changes nobody re-copies.
+     */
+    private void wireAsyncWorld(boolean on) {
+        asyncWired = on;
+        terrain.setListener(on ? asyncInvalidate : null);
+        if (!on) asyncWorld.clear();
+    }
+
+    /**
+     * Over the (adaptive) cap: removes the birds that matter least first, the farthest ones, with birds behind the
+     * camera counting as twice as far. At most {@link #TRIM_PER_TICK} per tick, so a budget drop thins the sky
+     * out instead of emptying it at once.
+     */
+    private void trimToCap(int cap, double camX, double camY, double camZ, Vec3d look) {
+        int remove = Math.min(store.size() - cap, TRIM_PER_TICK);
+        for (int k = 0; k < remove; k++) {
+            int worst = -1;
+            double worstScore = -1.0;
+            for (int i = 0; i < store.size(); i++) {
+                double dx = store.x[i] - camX;
+                double dy = store.y[i] - camY;
+                double dz = store.z[i] - camZ;
+                double score = dx * dx + dy * dy + dz * dz;
+                if (dx * look.x + dy * look.y + dz * look.z < 0) score *= 4.0; // (2x distance)^2
+                if (score > worstScore) {
+                    worstScore = score;
+                    worst = i;
+                }
             }
+            BirdSoundSystem.stopForBird(store.get(worst).getId());
+            store.removeAt(worst);
+        }
+    }
 
+    /**
+     * Waits for the async step in flight, if any (client thread). Anything that changes birds, flocks or
+     * species from the client thread must call this first.
+     *
+     * @return true if a step was in flight
+     */
+    public boolean awaitSimulation() {
+        Future<?> step = pendingStep;
+        if (step == null) return false;
+        pendingStep = null;
+        try {
+            step.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            JubitusBirds.LOGGER.error("[JubitusBirds] Bird simulation step failed", ex.getCause());
         }
+        return true;
+    }
 
-        // --- OPTIONAL: CLEAN UP EMPTY FLOCKS (keeps map small) ---
-        cleanupFlocks();
+    private ExecutorService getSimExecutor() {
+        if (simExecutor == null) {
+            simExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "JubitusBirds-Simulation");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return simExecutor;
+    }
 
-        // --- SPAWN (ONLY IF UNDER CAP) ---
-        if (birdsById.size() >= BirdConfig.maxBirdsAroundPlayer) return;
+    private static double lodFarDistance(Minecraft mc) {
+        return (BirdConfig.lodFarDistance > 0) ? BirdConfig.lodFarDistance : RenderBird.fogEndDistance(mc);
+    }
+
+    // 0 = same as the LOD far distance, negative = off
+    private static double impostorDistance(Minecraft mc, double lodScale) {
+        double dist = BirdConfig.flockImpostorDistance;
+        if (dist < 0) return dist;
+        return ((dist == 0) ? lodFarDistance(mc) : dist) * lodScale;
+    }
+
+    private void spawnBirds(World world, EntityPlayer player) {
+        int cap = budget.cap();
+        if (store.size() >= cap) return;
         long t = world.getWorldTime() % 24000L;
 // allow spawn from 0..13000 (daytime-ish)
         if (t > 13000L) return;
@@ -100,36 +260,37 @@ public class BirdManager {
         int cellX = floorDiv(px, cell);
         int cellZ = floorDiv(pz, cell);
 
-        int radiusCells = JubitusBirdsConfig.SPAWNING.spawnRadiusCells;
+        int radiusCells = budget.spawnRadius(JubitusBirdsConfig.SPAWNING.spawnRadiusCells);
 
-        FlockSpawner.SpawnResult sr = FlockSpawner.spawnForCells(
-                world, player, worldSeed, dim, window, cellX, cellZ, radiusCells
+        SpawnBatch batch = spawnBatch;
+        FlockSpawner.spawnForCells(
+                world, player, worldSeed, dim, window, cellX, cellZ, radiusCells, spawnCells, cellBiomes, knownBird, batch
         );
 
-
-        // Keep / add flock objects
-        flocksById.putAll(sr.flocks);
-
-        for (ClientBird b : sr.birds) {
-            long id = b.getId();
-            if (!birdsById.containsKey(id)) {
-                birdsById.put(id, b);
-                if (birdsById.size() >= BirdConfig.maxBirdsAroundPlayer) break;
+        // Admit until the cap; only admitted descriptors become birds (and their flock, on the first member).
+        // A cell is done once all of its birds are in (or were already) and its biome was its own.
+        int processed = 0;
+        while (processed < batch.size()) {
+            int k = processed++;
+            if (store.contains(batch.id[k])) continue;
+            ClientBird b = batch.materialize(k, world);
+            if (b == null || store.add(b) < 0) continue;
+
+            // Keep existing flock objects (their heading / impostor state carries over)
+            if (b.flockId != 0L && !flocks.contains(b.flockId)) {
+                flocks.put(batch.newFlock(k));
             }
+            b.onSpawn(liveWorld);
+            if (store.size() >= cap) break;
+        }
+        for (int c = 0; c < batch.cellCount(); c++) {
+            if (batch.cellSettled(c) && batch.cellEnd(c) <= processed) spawnCells.markDone(batch.cellX(c), batch.cellZ(c), window);
         }
-        BirdSoundSystem.tickCleanup();
     }
 
     private void cleanupFlocks() {
         // Remove flock entries if no birds reference them anymore
-        if (flocksById.isEmpty()) return;
-
-        Set<Long> used = new HashSet<>();
-        for (ClientBird b : birdsById.values()) {
-            if (b.flockId != 0L) used.add(b.flockId);
-        }
-
-        flocksById.keySet().removeIf(id -> !used.contains(id));
+        flocks.removeUnused(store);
     }
 
     private static int floorDiv(int a, int b) {
@@ -138,24 +299,106 @@ public class BirdManager {
         return r;
     }
 
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load e) {
+        Chunk c = e.getChunk();
+        if (e.getWorld() != null && e.getWorld().isRemote) terrain.invalidateChunk(c.x, c.z);
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload e) {
+        Chunk c = e.getChunk();
+        if (e.getWorld() != null && e.getWorld().isRemote) terrain.invalidateChunk(c.x, c.z);
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload e) {
+        if (e.getWorld() != null && e.getWorld().isRemote) {
+            awaitSimulation();
+            asyncWorld.clear();
+            terrain.bind(null);
+            budget.reset();
+            handOffNanos = 0L;
+            spawnCells.clear();
+            cellBiomes.clear();
+        }
+    }
+
     @SubscribeEvent
     public void onRenderWorldLast(RenderWorldLastEvent e) {
         Minecraft mc = Minecraft.getMinecraft();
         if (mc.world == null || mc.player == null) return;
 
-        RenderBird.renderAll(birdsById.values(), e.getPartialTicks());
+        long start = System.nanoTime();
+        RenderBird.renderAll(snapshot.front(), e.getPartialTicks());
+        long nanos = System.nanoTime() - start;
+        budget.addRenderNanos(nanos);
+        BirdProfiler.record(BirdProfiler.Phase.RENDER, nanos);
+        BirdProfiler.record(BirdProfiler.Counter.DRAW_CALLS, RenderBird.getLastDrawCalls());
+    }
+
+    @SubscribeEvent
+    public void onDebugText(RenderGameOverlayEvent.Text e) {
+        Minecraft mc = Minecraft.getMinecraft();
+        if (!mc.gameSettings.showDebugInfo || mc.world == null) return;
+
+        int frustum = RenderBird.getLastFrustumCulled();
+        int fog = RenderBird.getLastFogCulled();
+        e.getLeft().add("");
+        e.getLeft().add(String.format("[JubitusBirds] birds: %d, drawn: %d, culled: %d (frustum %d, fog %d)",
+                store.size(), RenderBird.getLastDrawn(), frustum + fog, frustum, fog));
+        e.getLeft().add(String.format("[JubitusBirds] obstacle rays granted: %d / %d",
+                simulation.getGrantedRaysLastTick(), BirdConfig.obstacleRaysPerTick));
+        if (BirdConfig.instancedRendering && BirdInstancedRenderer.INSTANCE.isAvailable()) {
+            e.getLeft().add(String.format("[JubitusBirds] atlas pages: %d, instances: %d",
+                    BirdTextureAtlas.INSTANCE.getPageCount(), BirdInstancedRenderer.INSTANCE.getInstanceCount()));
+        } else {
+            e.getLeft().add(String.format("[JubitusBirds] atlas pages: %d", BirdTextureAtlas.INSTANCE.getPageCount()));
+        }
+        if (BirdBudget.isEnabled()) {
+            e.getLeft().add(String.format("[JubitusBirds] budget: %.2f / %.2f ms, scale %.2f, cap %d",
+                    budget.getAverageMillis(), BirdConfig.birdBudgetMs, budget.getScale(), budget.cap()));
+        }
+        if (BirdProfiler.isEnabled()) addProfilerLines(e.getLeft());
+    }
+
+    /**
+     * Profiler block under the F3 line: p50/p99 per phase in microseconds, then the latest counter values.
+     */
+    private static void addProfilerLines(List<String> out) {
+        List<String> phases = new ArrayList<>();
+        for (BirdProfiler.Phase p : BirdProfiler.Phase.values()) {
+            BirdProfiler.Stats s = BirdProfiler.stats(p);
+            phases.add(String.format("%s %.0f/%.0f", p.label, s.p50 / 1000.0, s.p99 / 1000.0));
+        }
+        out.add("[JubitusBirds] µs p50/p99: " + String.join(", ", phases.subList(0, 4)));
+        out.add("[JubitusBirds]   " + String.join(", ", phases.subList(4, phases.size())));
+        out.add(String.format("[JubitusBirds] lod near/mid/far/impostor: %d/%d/%d/%d, rays: %d, heights: %d, draws: %d",
+                BirdProfiler.last(BirdProfiler.Counter.LOD_NEAR), BirdProfiler.last(BirdProfiler.Counter.LOD_MID),
+                BirdProfiler.last(BirdProfiler.Counter.LOD_FAR), BirdProfiler.last(BirdProfiler.Counter.LOD_IMPOSTOR),
+                BirdProfiler.last(BirdProfiler.Counter.RAYCASTS), BirdProfiler.last(BirdProfiler.Counter.HEIGHT_LOOKUPS),
+                BirdProfiler.last(BirdProfiler.Counter.DRAW_CALLS)));
     }
 
     public void clearAllBirds() {
+        awaitSimulation();
         // stop any active bird sounds first
         BirdSoundSystem.stopAll();
 
-        birdsById.clear();
-        flocksById.clear();
+        store.clear();
+        simulation.clear();
+        flocks.clear();
+        snapshot.clear();
+        spawnCells.clear();
     }
 
     public java.util.Collection<ClientBird> getAllBirdsForDebug() {
-        return birdsById.values();
+        awaitSimulation();
+        List<ClientBird> out = new ArrayList<>(store.size());
+        for (int i = 0; i < store.size(); i++) {
+            out.add(store.get(i));
+        }
+        return out;
     }
 
 
@@ -0,0 +1,204 @@
+package com.jubitus.birds.client;
+
+import com.jubitus.birds.client.config.BirdConfig;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost counters for the bird system, on while {@code profilerEnabled} is set (config or {@code /jubitusbirds stats on}).
+ * <p>
+ * Every {@link Phase} (nanoseconds per tick / frame) and {@link Counter} keeps the last {@link #WINDOW} samples in
+ * its own ring. A ring has one writer at a time (the client thread, or the simulation thread for the step phases):
+ * it writes the slot, then publishes it through a volatile head, so recording never locks or allocates. Readers
+ * copy the ring; a sample being overwritten at that moment only shifts the statistics by one value.
+ * Counters hit from worker threads (raycasts, height lookups) add up in a {@link LongAdder} until {@link #flush}.
+ */
+public final class BirdProfiler {
+
+    // Samples kept per series (power of two; ~13 s of ticks)
+    public static final int WINDOW = 256;
+    private static final int MASK = WINDOW - 1;
+
+    private static final LongAdder[] PENDING = new LongAdder[Counter.values().length];
+
+    // Replaced as a whole on reset, so writers never see a half-cleared ring
+    private static volatile Ring[] phaseRings = newRings(Phase.values().length);
+    private static volatile Ring[] counterRings = newRings(Counter.values().length);
+
+    static {
+        for (int i = 0; i < PENDING.length; i++) {
+            PENDING[i] = new LongAdder();
+        }
+    }
+
+    private BirdProfiler() {
+    }
+
+    private static Ring[] newRings(int n) {
+        Ring[] rings = new Ring[n];
+        for (int i = 0; i < n; i++) {
+            rings[i] = new Ring();
+        }
+        return rings;
+    }
+
+    public static boolean isEnabled() {
+        return BirdConfig.profilerEnabled;
+    }
+
+    // ---- recording ----
+
+    /**
+     * Start of a timed section: the current {@code nanoTime}, or 0 while the profiler is off.
+     */
+    public static long begin() {
+        return BirdConfig.profilerEnabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Nanoseconds since {@link #begin} (0 if that returned 0), for phases timed in several pieces.
+     */
+    public static long since(long start) {
+        return (start != 0L) ? System.nanoTime() - start : 0L;
+    }
+
+    public static void end(Phase phase, long start) {
+        if (start != 0L) phaseRings[phase.ordinal()].add(System.nanoTime() - start);
+    }
+
+    public static void record(Phase phase, long nanos) {
+        if (BirdConfig.profilerEnabled) phaseRings[phase.ordinal()].add(nanos);
+    }
+
+    public static void record(Counter counter, long value) {
+        if (BirdConfig.profilerEnabled) counterRings[counter.ordinal()].add(value);
+    }
+
+    /**
+     * Counts one event towards the current sample of {@code counter} (any thread).
+     */
+    public static void count(Counter counter) {
+        if (BirdConfig.profilerEnabled) PENDING[counter.ordinal()].increment();
+    }
+
+    /**
+     * Closes the current sample of {@code counter}: everything {@link #count}ed since the last flush.
+     */
+    public static void flush(Counter counter) {
+        LongAdder pending = PENDING[counter.ordinal()];
+        long value = pending.sumThenReset();
+        if (BirdConfig.profilerEnabled) counterRings[counter.ordinal()].add(value);
+    }
+
+    public static void reset() {
+        phaseRings = newRings(Phase.values().length);
+        counterRings = newRings(Counter.values().length);
+        for (LongAdder a : PENDING) {
+            a.reset();
+        }
+    }
+
+    // ---- reading ----
+
+    public static Stats stats(Phase phase) {
+        return phaseRings[phase.ordinal()].stats();
+    }
+
+    public static Stats stats(Counter counter) {
+        return counterRings[counter.ordinal()].stats();
+    }
+
+    /**
+     * Most recent sample of {@code counter}, 0 if there is none.
+     */
+    public static long last(Counter counter) {
+        return counterRings[counter.ordinal()].last();
+    }
+
+    public enum Phase {
+        SPATIAL("spatial rebuild"),
+        FLOCKS("flock tick"),
+        BIRDS("bird tick"),
+        DESPAWN("despawn"),
+        SPAWN("spawn"),
+        SOUND("sound cleanup"),
+        RENDER("render");
+
+        public final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    public enum Counter {
+        LOD_NEAR("birds near"),
+        LOD_MID("birds mid"),
+        LOD_FAR("birds far"),
+        LOD_IMPOSTOR("birds in flock impostors"),
+        RAYCASTS("raycasts"),
+        HEIGHT_LOOKUPS("height lookups"),
+        DRAW_CALLS("draw calls");
+
+        public final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Summary of one series over the current window (nearest-rank percentiles).
+     */
+    public static final class Stats {
+        public final int samples;
+        public final long p50, p99, max;
+        public final double mean;
+
+        Stats(long[] sorted, int n) {
+            this.samples = n;
+            if (n == 0) {
+                p50 = p99 = max = 0L;
+                mean = 0.0;
+                return;
+            }
+            long sum = 0L;
+            for (int i = 0; i < n; i++) {
+                sum += sorted[i];
+            }
+            this.p50 = sorted[rank(0.50, n)];
+            this.p99 = sorted[rank(0.99, n)];
+            this.max = sorted[n - 1];
+            this.mean = (double) sum / n;
+        }
+
+        private static int rank(double q, int n) {
+            return Math.max(0, (int) Math.ceil(q * n) - 1);
+        }
+    }
+
+    private static final class Ring {
+        private final long[] samples = new long[WINDOW];
+        // Samples written so far; the volatile write publishes the slot written before it
+        private volatile long head;
+
+        void add(long value) {
+            long h = head;
+            samples[(int) (h & MASK)] = value;
+            head = h + 1;
+        }
+
+        long last() {
+            long h = head;
+            return (h > 0) ? samples[(int) ((h - 1) & MASK)] : 0L;
+        }
+
+        Stats stats() {
+            int n = (int) Math.min(head, WINDOW);
+            long[] copy = Arrays.copyOf(samples, n);
+            Arrays.sort(copy);
+            return new Stats(copy, n);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.jubitus.birds.client;
+
+import com.jubitus.birds.render.BirdTexture;
+import com.jubitus.birds.render.BirdTextureAtlas;
+import net.minecraft.util.ResourceLocation;
+
+import java.util.Arrays;
+
+/**
+ * What the renderer needs from the simulation, copied out once per tick.
+ * <p>
+ * {@link #publish} writes every drawable bird's previous and current transform into the back {@link Frame}
+ * (one flat float record per bird, positions relative to a double origin so floats keep their precision far
+ * from 0,0) and then swaps it to the front. {@link com.jubitus.birds.render.RenderBird} only ever reads
+ * {@link #front()}, so it never touches {@link ClientBird} or the {@link BirdStore} arrays.
+ */
+public class BirdRenderSnapshot {
+
+    // Float record layout (per bird)
+    public static final int PREV_X = 0, PREV_Y = 1, PREV_Z = 2;
+    public static final int X = 3, Y = 4, Z = 5;
+    public static final int PREV_YAW = 6, YAW = 7;
+    public static final int PREV_PITCH = 8, PITCH = 9;
+    public static final int PREV_ROLL = 10, ROLL = 11;
+    public static final int SCALE = 12;
+    public static final int FLAP_AMP = 13, FLAP_SPEED = 14, FLAP_PHASE = 15;
+    public static final int RADIUS = 16; // culling radius around the position
+    public static final int STRIDE = 17;
+
+    private Frame back = new Frame();
+    private volatile Frame front = new Frame();
+
+    /**
+     * Latest published frame (render thread). Stays valid until the next {@link #publish}.
+     */
+    public Frame front() {
+        return front;
+    }
+
+    /**
+     * Copies the birds within {@code maxDist} of the origin into the back frame and makes it the front one
+     * (end of the client tick).
+     */
+    public void publish(BirdStore store, double originX, double originY, double originZ, double maxDist) {
+        Frame f = back;
+        int n = store.size();
+        f.ensureCapacity(n);
+        f.originX = originX;
+        f.originY = originY;
+        f.originZ = originZ;
+        double maxDist2 = maxDist * maxDist;
+
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            ClientBird b = store.get(i);
+            if (b.texture == null) continue; // nothing to draw
+
+            double dx = store.x[i] - originX;
+            double dy = store.y[i] - originY;
+            double dz = store.z[i] - originZ;
+            if (dx * dx + dy * dy + dz * dz > maxDist2) continue;
+
+            float[] d = f.data;
+            int o = count * STRIDE;
+            d[o + PREV_X] = (float) (store.prevX[i] - originX);
+            d[o + PREV_Y] = (float) (store.prevY[i] - originY);
+            d[o + PREV_Z] = (float) (store.prevZ[i] - originZ);
+            d[o + X] = (float) dx;
+            d[o + Y] = (float) dy;
+            d[o + Z] = (float) dz;
+            d[o + PREV_YAW] = b.prevYaw;
+            d[o + YAW] = b.orientation.yawDeg;
+            d[o + PREV_PITCH] = b.prevPitch;
+            d[o + PITCH] = b.orientation.pitchDeg;
+            d[o + PREV_ROLL] = b.prevRoll;
+            d[o + ROLL] = b.orientation.rollDeg;
+            if (b.species != null) {
+                d[o + SCALE] = (float) b.species.scale;
+                d[o + FLAP_AMP] = (float) b.species.flapAmplitude;
+                d[o + FLAP_SPEED] = (float) b.species.flapSpeed;
+                d[o + RADIUS] = (float) ((1.9 + b.species.flapAmplitude) * b.species.scale);
+            } else {
+                d[o + SCALE] = 0.45f;
+                d[o + FLAP_AMP] = 0.08f;
+                d[o + FLAP_SPEED] = 0.35f;
+                d[o + RADIUS] = 1.0f;
+            }
+            d[o + FLAP_PHASE] = b.hashCode() & 255;
+
+            f.ids[count] = b.getId();
+            f.textures[count] = b.texture;
+            f.regions[count] = BirdTexture.region(b);
+            f.lightValid[count] = false;
+            count++;
+        }
+        // drop references to birds that are gone
+        Arrays.fill(f.textures, count, f.count, null);
+        Arrays.fill(f.regions, count, f.count, null);
+        f.count = count;
+
+        back = front;
+        front = f;
+    }
+
+    public void clear() {
+        back.reset();
+        front.reset();
+    }
+
+    /**
+     * One published tick. {@code data} holds {@link #count} records of {@link #STRIDE} floats; the other arrays
+     * are per record. The light fields are a cache the renderer fills in.
+     */
+    public static final class Frame {
+        public double originX, originY, originZ;
+        public int count;
+        public float[] data = new float[STRIDE * 64];
+        public long[] ids = new long[64];
+        public ResourceLocation[] textures = new ResourceLocation[64];
+        public BirdTextureAtlas.Region[] regions = new BirdTextureAtlas.Region[64];
+        // Lightmap sample cache (render thread): value + the block it was taken in, reset every publish
+        public int[] light = new int[64];
+        public int[] lightX = new int[64], lightY = new int[64], lightZ = new int[64];
+        public boolean[] lightValid = new boolean[64];
+
+        void ensureCapacity(int n) {
+            if (n <= ids.length) return;
+            int cap = Math.max(n, ids.length + (ids.length >> 1));
+            data = Arrays.copyOf(data, cap * STRIDE);
+            ids = Arrays.copyOf(ids, cap);
+            textures = Arrays.copyOf(textures, cap);
+            regions = Arrays.copyOf(regions, cap);
+            light = Arrays.copyOf(light, cap);
+            lightX = Arrays.copyOf(lightX, cap);
+            lightY = Arrays.copyOf(lightY, cap);
+            lightZ = Arrays.copyOf(lightZ, cap);
+            lightValid = Arrays.copyOf(lightValid, cap);
+        }
+
+        void reset() {
+            Arrays.fill(textures, 0, count, null);
+            Arrays.fill(regions, 0, count, null);
+            count = 0;
+        }
+    }
+}
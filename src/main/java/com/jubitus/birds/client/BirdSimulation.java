@@ -0,0 +1,289 @@
+package com.jubitus.birds.client;
+
+import com.jubitus.birds.client.config.BirdConfig;
+import com.jubitus.birds.client.util.BirdWorld;
+import com.jubitus.birds.client.util.Flock;
+import com.jubitus.birds.client.util.FlockTable;
+import com.jubitus.birds.client.util.MutableVec3d;
+import com.jubitus.birds.client.util.SpatialHash;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The simulation step over a bird population and its flocks, apart from spawning, despawning and rendering.
+ * <p>
+ * {@link BirdManager} runs it on the client thread or on the async simulation thread; the benches run the very
+ * same step over a synthetic world. The neighbour index, the obstacle ray scheduler and the fork-join pool for
+ * {@code parallelTick} belong to the step. The caller owns the store and the flocks, and must not change them
+ * while a step runs.
+ */
+public class BirdSimulation {
+    private static final int PARALLEL_SLICE = 32; // birds per fork-join leaf task
+    private static final double FLOCK_IMPOSTOR_HYSTERESIS = 16.0; // blocks
+
+    private final BirdStore store;
+    private final FlockTable flocks;
+    private final SpatialHash spatial = new SpatialHash(24);
+    private final ObstacleProbeScheduler probes = new ObstacleProbeScheduler();
+
+    // Lazily created when parallelTick is enabled
+    private ForkJoinPool pool;
+    private int poolThreads;
+
+    private volatile long lastStepNanos;
+
+    public BirdSimulation(BirdStore store, FlockTable flocks) {
+        this.store = store;
+        this.flocks = flocks;
+    }
+
+    /**
+     * One simulation tick of every bird: flock impostors, neighbours, flocks, LOD, obstacle rays, compute and
+     * commit. Touches the game only through {@code w}, so it can run on the simulation thread.
+     *
+     * @param impostorDist flock impostor distance (negative = off)
+     */
+    public void step(BirdWorld w, double camX, double camY, double camZ,
+                     double impostorDist, double lodNear, double lodFar) {
+        long stepStart = System.nanoTime();
+        // --- FLOCK IMPOSTORS (collapse far flocks / re-expand returning ones) ---
+        long t = BirdProfiler.begin();
+        updateFlockImpostors(camX, camY, camZ, impostorDist);
+        long flockNanos = BirdProfiler.since(t);
+
+        // --- UPDATE SPATIAL HASH (neighbors) ---
+        t = BirdProfiler.begin();
+        spatial.rebuild(store);
+        BirdProfiler.end(BirdProfiler.Phase.SPATIAL, t);
+
+        // --- TICK FLOCKS (group decisions) ---
+        t = BirdProfiler.begin();
+        for (int k = 0; k < flocks.size(); k++) {
+            flocks.at(k).tick(w);
+        }
+        BirdProfiler.record(BirdProfiler.Phase.FLOCKS, flockNanos + BirdProfiler.since(t));
+
+        // --- TICK BIRDS ---
+        t = BirdProfiler.begin();
+        // --- LOD TIERS (near / mid / far) ---
+        assignLod(w, camX, camY, camZ, lodNear, lodFar);
+
+        // Hand out this tick's obstacle rays (sequential, so it's deterministic)
+        probes.schedule(store, BirdConfig.obstacleRaysPerTick);
+
+        // Compute phase (optionally parallel), then commit + calls in slot order
+        computeAll(w);
+        for (int i = 0; i < store.size(); i++) {
+            store.get(i).commitStep(w);
+        }
+        BirdProfiler.end(BirdProfiler.Phase.BIRDS, t);
+        BirdProfiler.flush(BirdProfiler.Counter.RAYCASTS);
+        BirdProfiler.flush(BirdProfiler.Counter.HEIGHT_LOOKUPS);
+        lastStepNanos = System.nanoTime() - stepStart;
+    }
+
+    private void computeAll(BirdWorld world) {
+        int n = store.size();
+        if (BirdConfig.parallelTick && n >= BirdConfig.parallelMinBirds) {
+            world.beginParallelRead(store);
+            try {
+                getPool().invoke(new ComputeSlice(world, 0, n));
+            } finally {
+                world.endParallelRead();
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                computeOne(world, i);
+            }
+        }
+    }
+
+    private void computeOne(BirdWorld world, int slot) {
+        ClientBird b = store.get(slot);
+
+        MutableVec3d flockForward = null;
+        Flock f = null;
+        if (b.flockId != 0L) {
+            f = flocks.get(b.flockId);
+            if (f != null) flockForward = f.getGroupForward();
+        }
+
+        if (f != null && b.isInFlockImpostor()) {
+            b.impostorStep(f);
+        } else if (b.lod == ClientBird.Lod.FAR) {
+            b.analyticStep(world, flockForward);
+        } else if (b.fullTickDue) {
+            b.computeStep(world, flockForward, spatial);
+        } else {
+            b.extrapolateStep(world);
+        }
+    }
+
+    /**
+     * Flocks whose centre is beyond the impostor distance collapse to a single simulated point (the members keep
+     * fixed offsets from it); they expand again once the centre is back within range. The hysteresis band stops
+     * a flock on the boundary from flipping every tick.
+     */
+    private void updateFlockImpostors(double camX, double camY, double camZ, double dist) {
+        if (flocks.isEmpty()) return;
+
+        boolean enabled = dist > 0;
+        double expand2 = dist * dist;
+        double collapse2 = (dist + FLOCK_IMPOSTOR_HYSTERESIS) * (dist + FLOCK_IMPOSTOR_HYSTERESIS);
+
+        for (int k = 0; k < flocks.size(); k++) {
+            flocks.at(k).resetMembers();
+        }
+        for (int i = 0; i < store.size(); i++) {
+            ClientBird b = store.get(i);
+            if (b.flockId == 0L) continue;
+            Flock f = flocks.get(b.flockId);
+            if (f == null) continue;
+            double vx = store.velX[i];
+            double vz = store.velZ[i];
+            f.addMember(store.x[i], store.y[i], store.z[i], Math.sqrt(vx * vx + vz * vz));
+        }
+
+        for (int k = 0; k < flocks.size(); k++) {
+            Flock f = flocks.at(k);
+            if (f.getMemberCount() == 0) continue;
+            double dx = f.getCenterX() - camX;
+            double dy = f.getCenterY() - camY;
+            double dz = f.getCenterZ() - camZ;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            if (f.isImpostor()) {
+                if (!enabled || d2 < expand2) f.expand();
+            } else if (enabled && d2 > collapse2) {
+                f.collapse();
+            }
+        }
+
+        // Bring members in line with their flock (also catches birds that joined a collapsed flock)
+        for (int i = 0; i < store.size(); i++) {
+            ClientBird b = store.get(i);
+            if (b.flockId == 0L) continue;
+            Flock f = flocks.get(b.flockId);
+            boolean collapsed = f != null && f.isImpostor();
+            if (collapsed == b.isInFlockImpostor()) continue;
+            if (collapsed) {
+                b.enterImpostor(f);
+            } else if (f != null) {
+                b.leaveImpostor(f);
+            }
+        }
+    }
+
+    /**
+     * Picks each bird's simulation tier from its distance to the camera.
+     * Mid-range birds are staggered by id so their full ticks spread evenly over the interval.
+     */
+    private void assignLod(BirdWorld world, double camX, double camY, double camZ, double near, double far) {
+        boolean enabled = BirdConfig.lodEnabled;
+        if (far < near) far = near;
+        double near2 = near * near;
+        double far2 = far * far;
+        int interval = Math.max(1, BirdConfig.lodMidTickInterval);
+        long now = world.getTotalWorldTime();
+        int nearCount = 0, midCount = 0, farCount = 0, impostorCount = 0;
+
+        for (int i = 0; i < store.size(); i++) {
+            ClientBird b = store.get(i);
+            if (b.isInFlockImpostor()) {
+                b.lod = ClientBird.Lod.FAR;
+                b.fullTickDue = false;
+                impostorCount++;
+                continue;
+            }
+            if (!enabled) {
+                b.lod = ClientBird.Lod.NEAR;
+                b.fullTickDue = true;
+                nearCount++;
+                continue;
+            }
+
+            double dx = store.x[i] - camX;
+            double dy = store.y[i] - camY;
+            double dz = store.z[i] - camZ;
+            double d2 = dx * dx + dy * dy + dz * dz;
+
+            if (d2 <= near2) {
+                b.lod = ClientBird.Lod.NEAR;
+                b.fullTickDue = true;
+                nearCount++;
+            } else if (d2 <= far2) {
+                b.lod = ClientBird.Lod.MID;
+                b.fullTickDue = ((now + (b.getId() & 0xFFFFL)) % interval) == 0;
+                midCount++;
+            } else {
+                b.lod = ClientBird.Lod.FAR;
+                b.fullTickDue = false;
+                farCount++;
+            }
+        }
+
+        BirdProfiler.record(BirdProfiler.Counter.LOD_NEAR, nearCount);
+        BirdProfiler.record(BirdProfiler.Counter.LOD_MID, midCount);
+        BirdProfiler.record(BirdProfiler.Counter.LOD_FAR, farCount);
+        BirdProfiler.record(BirdProfiler.Counter.LOD_IMPOSTOR, impostorCount);
+    }
+
+    private ForkJoinPool getPool() {
+        int threads = BirdConfig.parallelThreads;
+        if (threads <= 0) threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        if (pool == null || poolThreads != threads) {
+            if (pool != null) pool.shutdown();
+            pool = new ForkJoinPool(threads, p -> {
+                ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                t.setName("JubitusBirds-Worker-" + t.getPoolIndex());
+                t.setDaemon(true);
+                return t;
+            }, null, false);
+            poolThreads = threads;
+        }
+        return pool;
+    }
+
+    /**
+     * Splits the slot range until slices are small enough to compute directly.
+     */
+    private class ComputeSlice extends RecursiveAction {
+        private final BirdWorld world;
+        private final int from, to;
+
+        ComputeSlice(BirdWorld world, int from, int to) {
+            this.world = world;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_SLICE) {
+                for (int i = from; i < to; i++) {
+                    computeOne(world, i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ComputeSlice(world, from, mid), new ComputeSlice(world, mid, to));
+        }
+    }
+
+    /**
+     * Wall time of the last {@link #step}.
+     */
+    public long getLastStepNanos() {
+        return lastStepNanos;
+    }
+
+    public int getGrantedRaysLastTick() {
+        return probes.getGrantedLastTick();
+    }
+
+    public void clear() {
+        spatial.clear();
+    }
+}
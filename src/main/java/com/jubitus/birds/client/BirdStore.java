@@ -0,0 +1,197 @@
+package com.jubitus.birds.client;
+
+import com.jubitus.birds.client.util.LongSlotMap;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for all live birds.
+ * <p>
+ * Kinematic state (position, previous position, velocity, heading) lives in parallel primitive arrays
+ * indexed by a dense slot (0..size-1). Behaviour state (mode, rng, orientation, sounds) stays on {@link ClientBird}.
+ * Removal swaps the last bird into the freed slot so iteration stays dense.
+ */
+public class BirdStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // current position
+    public double[] x, y, z;
+    // position at the start of the current tick (render interpolation)
+    public double[] prevX, prevY, prevZ;
+    // velocity (blocks/tick)
+    public double[] velX, velY, velZ;
+    // normalized heading
+    public double[] fwdX, fwdY, fwdZ;
+    // next-tick state written by the compute phase, copied over by the commit phase
+    public double[] nextX, nextY, nextZ;
+    public double[] nextVelX, nextVelY, nextVelZ;
+    public double[] nextFwdX, nextFwdY, nextFwdZ;
+
+    private ClientBird[] birds;
+    private long[] ids;
+    private final LongSlotMap slotById = new LongSlotMap(INITIAL_CAPACITY);
+    private int size;
+
+    public BirdStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int cap) {
+        x = new double[cap];
+        y = new double[cap];
+        z = new double[cap];
+        prevX = new double[cap];
+        prevY = new double[cap];
+        prevZ = new double[cap];
+        velX = new double[cap];
+        velY = new double[cap];
+        velZ = new double[cap];
+        fwdX = new double[cap];
+        fwdY = new double[cap];
+        fwdZ = new double[cap];
+        nextX = new double[cap];
+        nextY = new double[cap];
+        nextZ = new double[cap];
+        nextVelX = new double[cap];
+        nextVelY = new double[cap];
+        nextVelZ = new double[cap];
+        nextFwdX = new double[cap];
+        nextFwdY = new double[cap];
+        nextFwdZ = new double[cap];
+        birds = new ClientBird[cap];
+        ids = new long[cap];
+    }
+
+    private void ensureCapacity(int needed) {
+        int cap = birds.length;
+        if (needed <= cap) return;
+
+        int newCap = Math.max(needed, cap + (cap >> 1));
+        x = Arrays.copyOf(x, newCap);
+        y = Arrays.copyOf(y, newCap);
+        z = Arrays.copyOf(z, newCap);
+        prevX = Arrays.copyOf(prevX, newCap);
+        prevY = Arrays.copyOf(prevY, newCap);
+        prevZ = Arrays.copyOf(prevZ, newCap);
+        velX = Arrays.copyOf(velX, newCap);
+        velY = Arrays.copyOf(velY, newCap);
+        velZ = Arrays.copyOf(velZ, newCap);
+        fwdX = Arrays.copyOf(fwdX, newCap);
+        fwdY = Arrays.copyOf(fwdY, newCap);
+        fwdZ = Arrays.copyOf(fwdZ, newCap);
+        nextX = Arrays.copyOf(nextX, newCap);
+        nextY = Arrays.copyOf(nextY, newCap);
+        nextZ = Arrays.copyOf(nextZ, newCap);
+        nextVelX = Arrays.copyOf(nextVelX, newCap);
+        nextVelY = Arrays.copyOf(nextVelY, newCap);
+        nextVelZ = Arrays.copyOf(nextVelZ, newCap);
+        nextFwdX = Arrays.copyOf(nextFwdX, newCap);
+        nextFwdY = Arrays.copyOf(nextFwdY, newCap);
+        nextFwdZ = Arrays.copyOf(nextFwdZ, newCap);
+        birds = Arrays.copyOf(birds, newCap);
+        ids = Arrays.copyOf(ids, newCap);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public ClientBird get(int slot) {
+        return birds[slot];
+    }
+
+    public long idAt(int slot) {
+        return ids[slot];
+    }
+
+    public boolean contains(long id) {
+        return slotById.containsKey(id);
+    }
+
+    /**
+     * @return slot of the bird, or -1 if not present
+     */
+    public int slotOf(long id) {
+        return slotById.get(id);
+    }
+
+    /**
+     * Adds a freshly constructed bird and copies its spawn kinematics into the arrays.
+     *
+     * @return the slot, or -1 if a bird with the same id is already stored
+     */
+    public int add(ClientBird b) {
+        long id = b.getId();
+        if (slotById.containsKey(id)) return -1;
+
+        ensureCapacity(size + 1);
+        int slot = size++;
+
+        birds[slot] = b;
+        ids[slot] = id;
+        slotById.put(id, slot);
+
+        b.attach(this, slot);
+        return slot;
+    }
+
+    /**
+     * Removes the bird at {@code slot}. The last bird is moved into the hole,
+     * so callers iterating forward must re-visit {@code slot} afterwards.
+     */
+    public void removeAt(int slot) {
+        ClientBird gone = birds[slot];
+        slotById.remove(ids[slot]);
+
+        int last = --size;
+        if (slot != last) {
+            copySlot(last, slot);
+            birds[slot] = birds[last];
+            ids[slot] = ids[last];
+            slotById.put(ids[slot], slot);
+            birds[slot].moveTo(slot);
+        }
+
+        birds[last] = null;
+        if (gone != null) gone.detach();
+    }
+
+    private void copySlot(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        z[to] = z[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        prevZ[to] = prevZ[from];
+        velX[to] = velX[from];
+        velY[to] = velY[from];
+        velZ[to] = velZ[from];
+        fwdX[to] = fwdX[from];
+        fwdY[to] = fwdY[from];
+        fwdZ[to] = fwdZ[from];
+        nextX[to] = nextX[from];
+        nextY[to] = nextY[from];
+        nextZ[to] = nextZ[from];
+        nextVelX[to] = nextVelX[from];
+        nextVelY[to] = nextVelY[from];
+        nextVelZ[to] = nextVelZ[from];
+        nextFwdX[to] = nextFwdX[from];
+        nextFwdY[to] = nextFwdY[from];
+        nextFwdZ[to] = nextFwdZ[from];
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            ClientBird b = birds[i];
+            if (b != null) b.detach();
+            birds[i] = null;
+        }
+        size = 0;
+        slotById.clear();
+    }
+}
@@ -1,20 +1,22 @@
 package com.jubitus.birds.client;
 
 import com.jubitus.birds.client.config.BirdConfig;
-import com.jubitus.birds.client.sound.BirdCallSound;
 import com.jubitus.birds.client.sound.BirdCallType;
 import com.jubitus.birds.client.sound.BirdSoundSystem;
 import com.jubitus.birds.client.util.BirdOrientation;
+import com.jubitus.birds.client.util.BirdWorld;
 import com.jubitus.birds.client.util.BirdSteering;
+import com.jubitus.birds.client.util.BlockRaycast;
+import com.jubitus.birds.client.util.Flock;
 import com.jubitus.birds.client.util.FlockingRules;
+import com.jubitus.birds.client.util.MutableVec3d;
+import com.jubitus.birds.client.util.SpatialHash;
+import com.jubitus.birds.render.BirdTextureAtlas;
 import com.jubitus.birds.species.BirdSpecies;
-import net.minecraft.client.Minecraft;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.SoundEvent;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.world.World;
 
 import java.util.Random;
 
@@ -23,42 +25,123 @@ public class ClientBird {
     private static final double MAX_CLIMB_PER_TICK = 0.20; // blocks/tick, how fast it can "pull up" to avoid collision
     private static final double COLLISION_BUFFER = 1.0;    // extra clearance above min
     private static final FlockingRules.Params FLOCK_PARAMS = new FlockingRules.Params();
+    // ground sample distances along the heading (current position / next position)
+    private static final double[] AHEAD_SAMPLES = {0, 6, 12, 18, 26, 34};
+    private static final double[] NEXT_STEP_SAMPLES = {0, 6, 12, 18, 26};
+    private static final double OBSTACLE_PROBE_DIST = 16.0;
+    // blocks above the height map (min over the probe's Y) that count as clear air
+    private static final double CLEAR_AIR_MARGIN = 4.0;
     public final BirdSpecies species;
     public final BirdOrientation orientation = new BirdOrientation();
     // Deterministic chosen texture for this bird
     public final ResourceLocation texture;
+    // UV rectangle of that texture in the bird atlas (resolved lazily by BirdTexture)
+    public BirdTextureAtlas.Region atlasRegion;
     private final long birdSeed;
     private final Random rng;
     public int ageTicks = 0;
-    public Vec3d pos;
-    public Vec3d vel;
     public long flockId = 0L;
-    public Vec3d prevPos;
     public float prevYaw, prevPitch, prevRoll;
+    // Kinematic state (pos/prevPos/vel/forward) lives in the BirdStore arrays at this slot
+    private BirdStore store;
+    private int slot = -1;
+    // Spawn kinematics, copied into the store on attach
+    private final double spawnX, spawnY, spawnZ;
+    private final double spawnDirX, spawnDirY, spawnDirZ;
+    private final double spawnSpeed;
     private long nextCallWorldTick = -1;
+    // set by computeStep, cleared by commitStep
+    private boolean pendingCommit;
+    private boolean fullStep;
+    // Simulation tier, assigned by BirdManager each tick
+    public Lod lod = Lod.NEAR;
+    // true if this tick runs the full computeStep (NEAR, or MID on its turn)
+    boolean fullTickDue = true;
+    // Obstacle probe state (see ObstacleProbeScheduler)
+    boolean probeScheduled, probeGranted;
+    boolean lastProbeHit;
+    boolean clearAir;
+    int ticksSinceProbe;
+    double turnRate;        // |sin| of last tick's heading change
+    double floorClearance;  // blocks above the required minimum altitude
+    // Flock impostor: while the flock is collapsed the bird sits at a fixed offset from the flock centre
+    private boolean inImpostor;
+    private double impostorOffX, impostorOffY, impostorOffZ;
     private double smoothVy = 0.0;
-    private Vec3d forward;        // normalized heading
-    private Vec3d waypoint;       // for glide mode
-    private Vec3d circleCenter;   // for circle mode
+    private double waypointX, waypointY, waypointZ;   // for glide mode
+    private double circleCenterX, circleCenterZ;       // for circle mode
     private double circleRadius;
     private int modeTicksLeft;
     private Mode mode;
     // used for banking (roll)
-    private Vec3d lastForwardXZ = new Vec3d(0, 0, 1);
+    private double lastFwdX = 0, lastFwdZ = 1;
+    // per-bird scratch so tick() doesn't allocate
+    private final MutableVec3d forward = new MutableVec3d();
+    private final MutableVec3d desired = new MutableVec3d();
+    private final MutableVec3d scratch = new MutableVec3d();
+    private final BlockPos.MutableBlockPos rayCursor = new BlockPos.MutableBlockPos();
+    private final SpatialHash.Query neighborQuery = new SpatialHash.Query();
 
 
-    public ClientBird(World world, BirdSpecies species, long birdSeed, Vec3d startPos, Vec3d initialDir, double speed) {
+    public ClientBird(BirdSpecies species, long birdSeed, Vec3d startPos, Vec3d initialDir, double speed) {
+        this(species, birdSeed, startPos.x, startPos.y, startPos.z, initialDir.x, initialDir.y, initialDir.z, speed);
+    }
+
+    public ClientBird(BirdSpecies species, long birdSeed, double x, double y, double z,
+                      double dirX, double dirY, double dirZ, double speed) {
         this.species = species;
         this.birdSeed = birdSeed;
         this.rng = new Random(birdSeed);
 
-        this.pos = startPos;
-        this.forward = initialDir.normalize();
-        this.vel = this.forward.scale(speed);
+        // same as Vec3d.normalize(): zero for a (near) zero vector
+        double len = Math.sqrt(dirX * dirX + dirY * dirY + dirZ * dirZ);
+        double inv = (len < 1.0E-4) ? 0.0 : 1.0 / len;
+        this.spawnX = x;
+        this.spawnY = y;
+        this.spawnZ = z;
+        this.spawnDirX = dirX * inv;
+        this.spawnDirY = dirY * inv;
+        this.spawnDirZ = dirZ * inv;
+        this.spawnSpeed = speed;
 
         // pick deterministic texture variation for this bird
         this.texture = (species != null) ? species.pickTexture(birdSeed) : null;
+    }
+
+    /**
+     * Called by {@link BirdStore#add} once the bird owns a slot: copies the spawn kinematics into the arrays.
+     */
+    void attach(BirdStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
+
+        store.x[slot] = spawnX;
+        store.y[slot] = spawnY;
+        store.z[slot] = spawnZ;
+        store.prevX[slot] = spawnX;
+        store.prevY[slot] = spawnY;
+        store.prevZ[slot] = spawnZ;
+        store.fwdX[slot] = spawnDirX;
+        store.fwdY[slot] = spawnDirY;
+        store.fwdZ[slot] = spawnDirZ;
+        store.velX[slot] = spawnDirX * spawnSpeed;
+        store.velY[slot] = spawnDirY * spawnSpeed;
+        store.velZ[slot] = spawnDirZ * spawnSpeed;
+    }
+
+    void moveTo(int slot) {
+        this.slot = slot;
+    }
+
+    void detach() {
+        this.store = null;
+        this.slot = -1;
+    }
 
+    /**
+     * World-dependent initialisation (first flight mode + call schedule). Runs once the bird is in the store.
+     */
+    public void onSpawn(BirdWorld world) {
         pickNewMode(world, true);
 
         // schedule first call using SINGLE by default (we’ll swap to FLOCK automatically when flockId != 0)
@@ -67,7 +150,7 @@ public class ClientBird {
         scheduleNextCall(world, world.getTotalWorldTime(), sv, true);
     }
 
-    private void pickNewMode(World world, boolean first) {
+    private void pickNewMode(BirdWorld world, boolean first) {
         // Slight preference to glide
         double wG = species.patternWeightGlide;
         double wC = species.patternWeightCircle;
@@ -88,7 +171,8 @@ public class ClientBird {
             double dx = Math.cos(ang) * circleRadius;
             double dz = Math.sin(ang) * circleRadius;
 
-            circleCenter = new Vec3d(pos.x + dx, pos.y, pos.z + dz);
+            circleCenterX = store.x[slot] + dx;
+            circleCenterZ = store.z[slot] + dz;
         } else {
             mode = Mode.GLIDE;
             BirdSpecies.BirdSpeciesView v = species.viewForTime(world.isDaytime());
@@ -98,14 +182,17 @@ public class ClientBird {
 
         // First time: ensure we don’t immediately dive
         if (first) {
-            double gy = getGroundY(world, pos.x, pos.z);
+            double gy = getGroundY(world, store.x[slot], store.z[slot]);
             BirdSpecies.BirdSpeciesView v = species.viewForTime(world.isDaytime());
             double minY = gy + v.minAltitudeAboveGround();
-            if (pos.y < minY) pos = new Vec3d(pos.x, minY, pos.z);
+            if (store.y[slot] < minY) {
+                store.y[slot] = minY;
+                store.prevY[slot] = minY;
+            }
         }
     }
 
-    private void scheduleNextCall(World world, long now, BirdSpecies.SoundView sv, boolean firstSchedule) {
+    private void scheduleNextCall(BirdWorld world, long now, BirdSpecies.SoundView sv, boolean firstSchedule) {
         int base = sv.soundBaseIntervalTicks();
         double r = sv.soundRandomness(); // 0..1
 
@@ -140,27 +227,27 @@ public class ClientBird {
         return a + (b - a) * t;
     }
 
-    private void pickGlideWaypoint(World world) {
+    private void pickGlideWaypoint(BirdWorld world) {
         // A forward-ish waypoint so it feels like it’s passing through an area
         double dist = 80 + rng.nextDouble() * 140;
-        double ang = Math.atan2(forward.z, forward.x) + (rng.nextDouble() - 0.5) * Math.toRadians(50);
+        double ang = Math.atan2(store.fwdZ[slot], store.fwdX[slot]) + (rng.nextDouble() - 0.5) * Math.toRadians(50);
 
-        double wx = pos.x + Math.cos(ang) * dist;
-        double wz = pos.z + Math.sin(ang) * dist;
+        double wx = store.x[slot] + Math.cos(ang) * dist;
+        double wz = store.z[slot] + Math.sin(ang) * dist;
 
         double gy = getGroundY(world, wx, wz);
         BirdSpecies.BirdSpeciesView v = species.viewForTime(world.isDaytime());
         double targetAbove = lerp(v.preferredAboveGround() - 15, v.preferredAboveGround() + 15, rng.nextDouble());
         double wy = gy + clamp(targetAbove, v.minAltitudeAboveGround(), v.maxAltitudeAboveGround());
 
-        waypoint = new Vec3d(wx, wy, wz);
+        waypointX = wx;
+        waypointY = wy;
+        waypointZ = wz;
     }
 
-    private static double getGroundY(World world, double x, double z) {
+    private double getGroundY(BirdWorld world, double x, double z) {
         // Use the top solid or liquid block at this column
-        BlockPos pos = new BlockPos(x, 0, z);
-        BlockPos top = world.getHeight(pos);
-        return top.getY();
+        return world.getHeight(x, z);
     }
 
     private static double clamp(double v, double lo, double hi) {
@@ -185,23 +272,39 @@ public class ClientBird {
         return new Vec3d(blended.x, desired.y * 0.2, blended.z).normalize();
     }
 
-    private static float distanceToPlayer(World world, Vec3d soundPos) {
-        Minecraft mc = Minecraft.getMinecraft();
-        if (mc == null || mc.player == null) return Float.MAX_VALUE;
-
-        double px = mc.player.posX;
-        double py = mc.player.posY + mc.player.getEyeHeight();
-        double pz = mc.player.posZ;
+    private static float distanceToPlayer(BirdWorld world, double sx, double sy, double sz) {
+        double px = world.getViewerX();
+        double py = world.getViewerY();
+        double pz = world.getViewerZ();
+        if (Double.isNaN(px)) return Float.MAX_VALUE; // no player
 
-        double dx = px - soundPos.x;
-        double dy = py - soundPos.y;
-        double dz = pz - soundPos.z;
+        double dx = px - sx;
+        double dy = py - sy;
+        double dz = pz - sz;
         return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
     }
 
-    public void tick(World world, Vec3d flockForward, java.util.List<ClientBird> neighbors) {
-        if (world == null) return;
-        prevPos = pos;
+    public void tick(BirdWorld world, MutableVec3d flockForward, SpatialHash neighbors) {
+        computeStep(world, flockForward, neighbors);
+        commitStep(world);
+    }
+
+    /**
+     * Compute phase: steering, altitude and collision for this tick.
+     * <p>
+     * Reads only this bird's own slot, the neighbour snapshot and the world; writes only this bird's fields and
+     * its {@code next*} slot in the store. Birds are independent here, so this may run on worker threads
+     * (while the client thread waits) and the result does not depend on the order birds are computed in.
+     *
+     * @return false if the bird can't be ticked (no world / not in a store)
+     */
+    public boolean computeStep(BirdWorld world, MutableVec3d flockForward, SpatialHash neighbors) {
+        if (world == null || store == null) return false;
+        final BirdStore s = store;
+        final int i = slot;
+
+        MutableVec3d forward = this.forward.set(s.fwdX[i], s.fwdY[i], s.fwdZ[i]);
+        MutableVec3d desiredDir = this.desired;
 
         prevYaw = orientation.yawDeg;
         prevPitch = orientation.pitchDeg;
@@ -221,28 +324,27 @@ public class ClientBird {
         }
 
         // Compute target direction
-        Vec3d desiredDir;
 
 // If in a flock: use the shared flock heading as the main intent.
 // This makes the flock actually move like a flock.
         if (flockId != 0L && flockForward != null && flockForward.lengthSquared() > 1e-8) {
-            desiredDir = new Vec3d(flockForward.x, 0, flockForward.z).normalize();
+            desiredDir.set(flockForward.x, 0, flockForward.z).normalize();
         } else {
-            desiredDir = computeDesiredDirection(world);
+            computeDesiredDirection(world, desiredDir);
         }
 
 
         // If in a flock, gently bias toward flock forward (group decision)
         if (flockId != 0L && flockForward != null) {
-            desiredDir = desiredDir.add(flockForward.scale(0.35)).normalize();
+            desiredDir.add(flockForward.x * 0.35, flockForward.y * 0.35, flockForward.z * 0.35).normalize();
         }
 
 // Boids steering (cohesion/alignment/separation)
         if (flockId != 0L && neighbors != null) {
-            Vec3d boidsForce = FlockingRules.boidsSteer(this, neighbors, FLOCK_PARAMS);
+            MutableVec3d boidsForce = FlockingRules.boidsSteer(this, neighbors, neighborQuery, FLOCK_PARAMS, this.scratch);
 
             if (boidsForce.lengthSquared() > 1e-8) {
-                desiredDir = desiredDir.add(boidsForce).normalize();
+                desiredDir.add(boidsForce).normalize();
             }
         }
 
@@ -252,7 +354,7 @@ public class ClientBird {
 // Flocks should wander much less or they won't look cohesive.
         if (flockId != 0L) noise *= 0.20;
 
-        desiredDir = desiredDir.add(
+        desiredDir.add(
                 (rng.nextDouble() - 0.5) * noise,
                 (rng.nextDouble() - 0.5) * (noise * 0.3),
                 (rng.nextDouble() - 0.5) * noise
@@ -261,13 +363,15 @@ public class ClientBird {
 
         // Smooth turning: rotate current forward toward desired with turn limit
         double maxTurnRad = Math.toRadians(v.maxTurnDegPerTick());
-        forward = BirdSteering.limitTurnXZ(forward, desiredDir, maxTurnRad);
+        BirdSteering.limitTurnXZ(forward, desiredDir, maxTurnRad);
 
+        double posY = s.y[i];
 
         // Altitude control: keep above ground + prefer a high band
         // --- Altitude control: prefer a band, but NEVER violate required minimum (smoothly) ---
         double targetY = computeTargetY(world); // your "nice" cruising target
         double requiredMinY = computeRequiredMinY(world); // ground ahead constraint
+        floorClearance = posY - requiredMinY;
 
 // If we're below the required min, raise targetY to at least that.
 // Add a little extra buffer so we don't skim peaks.
@@ -276,29 +380,29 @@ public class ClientBird {
 // Only force terrain-following when we’re getting close to the constraint.
 // Otherwise keep cruising target (prevents constant “mountain bias”).
         double safeTargetY = targetY;
-        if (pos.y < requiredMinY + 10.0) {
+        if (posY < requiredMinY + 10.0) {
             safeTargetY = Math.max(targetY, requiredMinY + safetyBuffer);
         }
 
 
 // Base vertical intent toward safeTargetY
-        double yError = safeTargetY - pos.y;
+        double yError = safeTargetY - posY;
 
 // When below the safe floor, allow a bit stronger climb than normal.
 // (Still smooth, but prevents getting "stuck" inside mountains.)
-        double maxUp = (pos.y < requiredMinY) ? 0.09 : 0.06;
+        double maxUp = (posY < requiredMinY) ? 0.09 : 0.06;
         double maxDown = 0.06;
 
         double desiredVy = clamp(yError * v.verticalAdjustStrength(), -maxDown, maxUp);
 
 // Obstacle avoidance (trees/cliffs directly ahead): keep it gentle
-        Vec3d avoid = obstacleAvoidance(world);
-        if (avoid != null) {
+        MutableVec3d avoid = this.scratch;
+        if (obstacleAvoidance(world, avoid)) {
             double maxTurnRadAvoid = Math.toRadians(v.maxTurnDegPerTick() * 1.25);
-            forward = BirdSteering.limitTurnXZ(forward, avoid, maxTurnRadAvoid);
+            BirdSteering.limitTurnXZ(forward, avoid, maxTurnRadAvoid);
 
             // Only request extra climb if we are near/under the floor.
-            if (pos.y < requiredMinY + 6.0) {
+            if (posY < requiredMinY + 6.0) {
                 desiredVy = Math.max(desiredVy, 0.015);
             }
         }
@@ -311,7 +415,9 @@ public class ClientBird {
 
 
         // Speed varies slightly by mode
-        double speed = vel.length();
+        double speed = Math.sqrt(s.velX[i] * s.velX[i]
+                + s.velY[i] * s.velY[i]
+                + s.velZ[i] * s.velZ[i]);
         double targetSpeed = (mode == Mode.CIRCLE)
                 ? lerp(v.minSpeed(), v.maxSpeed(), 0.35)
                 : lerp(v.minSpeed(), v.maxSpeed(), 0.65);
@@ -320,79 +426,341 @@ public class ClientBird {
         speed = lerp(speed, targetSpeed, 0.03);
 
         // Update velocity and position
-        Vec3d horiz = new Vec3d(forward.x, 0, forward.z);
-        if (horiz.lengthSquared() < 1e-6) horiz = new Vec3d(1, 0, 0);
-        horiz = horiz.normalize().scale(speed);
-
-        vel = new Vec3d(horiz.x, vy, horiz.z);
+        double hx = forward.x;
+        double hz = forward.z;
+        double h2 = hx * hx + hz * hz;
+        if (h2 < 1e-6) {
+            hx = 1;
+            hz = 0;
+            h2 = 1;
+        }
+        double hs = speed / Math.sqrt(h2);
+        double velX = hx * hs;
+        double velZ = hz * hs;
 
         // Banking roll: based on change in forward direction (turning)
-        Vec3d fNow = new Vec3d(forward.x, 0, forward.z);
-        if (fNow.lengthSquared() > 1e-6) fNow = fNow.normalize();
+        double nowX = forward.x;
+        double nowZ = forward.z;
+        double now2 = nowX * nowX + nowZ * nowZ;
+        if (now2 > 1e-6) {
+            double nl = Math.sqrt(now2);
+            nowX /= nl;
+            nowZ /= nl;
+        }
 
-        Vec3d fPrev = lastForwardXZ;
-        double cross = (fPrev.x * fNow.z) - (fPrev.z * fNow.x); // signed turn amount
+        double cross = (lastFwdX * nowZ) - (lastFwdZ * nowX); // signed turn amount
+        turnRate = Math.abs(cross);
         float targetRoll = (float) BirdSteering.clamp(-cross * 55.0, -35.0, 35.0);
         orientation.setTargetRoll(targetRoll, 3.0f);
 
-        orientation.updateFromVelocity(vel, 6.0f, 4.0f, 3.0f);
+        orientation.updateFromVelocity(velX, vy, velZ, 6.0f, 4.0f, 3.0f);
 
-        lastForwardXZ = fNow;
+        lastFwdX = nowX;
+        lastFwdZ = nowZ;
 
 
-        Vec3d nextPos = pos.add(vel);
+        double nextX = s.x[i] + velX;
+        double nextY = posY + vy;
+        double nextZ = s.z[i] + velZ;
 
 // Compute floor based on where we are about to be (prevents entering cliffs)
-        double requiredMinNext = computeRequiredMinYAt(world, nextPos) + COLLISION_BUFFER;
+        double requiredMinNext = computeRequiredMinYAt(world, nextX, nextZ) + COLLISION_BUFFER;
 
-        if (nextPos.y < requiredMinNext) {
-            double needed = requiredMinNext - nextPos.y;
+        if (nextY < requiredMinNext) {
+            double needed = requiredMinNext - nextY;
 
             // Lift, but limit how much vertical correction happens in one tick
             double lift = Math.min(needed, MAX_CLIMB_PER_TICK);
 
-            nextPos = new Vec3d(nextPos.x, nextPos.y + lift, nextPos.z);
+            nextY += lift;
 
             // Encourage continued climb on following ticks (so it feels like pulling up)
             smoothVy = Math.max(smoothVy, lift); // lift is in blocks/tick effectively
         }
-        tryPlayCall(world, world.getTotalWorldTime(), v);
-        pos = nextPos;
+        s.nextX[i] = nextX;
+        s.nextY[i] = nextY;
+        s.nextZ[i] = nextZ;
+        s.nextVelX[i] = velX;
+        s.nextVelY[i] = vy;
+        s.nextVelZ[i] = velZ;
+        s.nextFwdX[i] = forward.x;
+        s.nextFwdY[i] = forward.y;
+        s.nextFwdZ[i] = forward.z;
+        pendingCommit = true;
+        fullStep = true;
+        return true;
+    }
+
+    /**
+     * Mid-LOD in-between tick: dead-reckons along the current velocity (no steering, boids or rays).
+     * Only a single cached height lookup keeps it from sinking into terrain. The mode timer keeps running;
+     * a mode that runs out here is replaced on the next full tick.
+     */
+    public void extrapolateStep(BirdWorld world) {
+        if (world == null || store == null) return;
+        final BirdStore s = store;
+        final int i = slot;
+
+        beginCheapStep();
+        modeTicksLeft--;
+
+        double nextX = s.x[i] + s.velX[i];
+        double nextY = s.y[i] + s.velY[i];
+        double nextZ = s.z[i] + s.velZ[i];
+
+        double floor = getGroundY(world, nextX, nextZ) + COLLISION_BUFFER;
+        if (nextY < floor) nextY += Math.min(floor - nextY, MAX_CLIMB_PER_TICK);
+
+        writeNext(nextX, nextY, nextZ, s.velX[i], s.velY[i], s.velZ[i], s.fwdX[i], s.fwdY[i], s.fwdZ[i]);
+    }
+
+    /**
+     * Far-LOD tick: follows the current glide/circle path (or the flock heading) analytically.
+     * No terrain, boids or ray queries; mode timers are frozen until the bird comes back into range.
+     */
+    public void analyticStep(BirdWorld world, MutableVec3d flockForward) {
+        if (world == null || store == null) return;
+        final BirdStore s = store;
+        final int i = slot;
+        double px = s.x[i];
+        double py = s.y[i];
+        double pz = s.z[i];
+
+        beginCheapStep();
+
+        BirdSpecies.BirdSpeciesView v = species.viewForTime(world.isDaytime());
+        double speed = Math.sqrt(s.velX[i] * s.velX[i] + s.velZ[i] * s.velZ[i]);
+        double targetSpeed = (mode == Mode.CIRCLE)
+                ? lerp(v.minSpeed(), v.maxSpeed(), 0.35)
+                : lerp(v.minSpeed(), v.maxSpeed(), 0.65);
+        speed = lerp(speed, targetSpeed, 0.03);
+
+        double nextX, nextZ;
+        double vy = 0.0;
+        if (flockId != 0L && flockForward != null && flockForward.lengthSquared() > 1e-8) {
+            double fl = Math.sqrt(flockForward.x * flockForward.x + flockForward.z * flockForward.z);
+            nextX = px + flockForward.x / fl * speed;
+            nextZ = pz + flockForward.z / fl * speed;
+        } else if (mode == Mode.CIRCLE) {
+            // angular step along the circle; cw birds move with decreasing angle (matches computeDesiredDirection)
+            double ox = px - circleCenterX;
+            double oz = pz - circleCenterZ;
+            double r = Math.sqrt(ox * ox + oz * oz);
+            double ang = Math.atan2(oz, ox);
+            r += (circleRadius - r) * 0.02; // ease back onto the radius like the full tick does
+            boolean cw = (birdSeed & 1L) == 0L;
+            ang += (cw ? -1.0 : 1.0) * (speed / Math.max(r, 1.0));
+            nextX = circleCenterX + Math.cos(ang) * r;
+            nextZ = circleCenterZ + Math.sin(ang) * r;
+        } else {
+            double dx = waypointX - px;
+            double dz = waypointZ - pz;
+            double d = Math.sqrt(dx * dx + dz * dz);
+            if (d < 4.0) {
+                // reached: keep going the same way at the same height (no terrain lookup out here)
+                double hx = s.fwdX[i];
+                double hz = s.fwdZ[i];
+                double hl = Math.sqrt(hx * hx + hz * hz);
+                if (hl < 1e-6) {
+                    hx = 0;
+                    hz = 1;
+                    hl = 1;
+                }
+                waypointX = px + hx / hl * 120.0;
+                waypointZ = pz + hz / hl * 120.0;
+                waypointY = py;
+                dx = waypointX - px;
+                dz = waypointZ - pz;
+                d = 120.0;
+            }
+            nextX = px + dx / d * speed;
+            nextZ = pz + dz / d * speed;
+            vy = clamp((waypointY - py) * 0.02, -0.06, 0.06);
+        }
+
+        double velX = nextX - px;
+        double velZ = nextZ - pz;
+        double hl = Math.sqrt(velX * velX + velZ * velZ);
+        double fx = (hl > 1e-6) ? velX / hl : s.fwdX[i];
+        double fz = (hl > 1e-6) ? velZ / hl : s.fwdZ[i];
+
+        orientation.setTargetRoll(0f, 3.0f);
+        orientation.updateFromVelocity(velX, vy, velZ, 6.0f, 4.0f, 3.0f);
+        lastFwdX = fx;
+        lastFwdZ = fz;
+        smoothVy = vy;
+
+        writeNext(nextX, py + vy, nextZ, velX, vy, velZ, fx, 0.0, fz);
+    }
+
+    public boolean isInFlockImpostor() {
+        return inImpostor;
+    }
+
+    /**
+     * Called when the flock collapses (or when joining a collapsed flock): freezes this bird's offset from the
+     * flock centre. From now on {@link #impostorStep} places it.
+     */
+    public void enterImpostor(Flock flock) {
+        if (store == null) return;
+        inImpostor = true;
+        impostorOffX = store.x[slot] - flock.getCenterX();
+        impostorOffY = store.y[slot] - flock.getCenterY();
+        impostorOffZ = store.z[slot] - flock.getCenterZ();
+    }
+
+    /**
+     * Re-expansion when the flock comes back into range. The bird is already at centre + offset; its
+     * velocity, heading and steering memory are rebuilt from the flock alone, so the result only depends on
+     * the flock state and the offset, not on how long the flock was collapsed.
+     */
+    public void leaveImpostor(Flock flock) {
+        inImpostor = false;
+        if (store == null) return;
+        final BirdStore s = store;
+        final int i = slot;
+
+        MutableVec3d gf = flock.getGroupForward();
+        double speed = flock.getSpeed();
+        s.velX[i] = gf.x * speed;
+        s.velY[i] = 0.0;
+        s.velZ[i] = gf.z * speed;
+        s.fwdX[i] = gf.x;
+        s.fwdY[i] = 0.0;
+        s.fwdZ[i] = gf.z;
+
+        lastFwdX = gf.x;
+        lastFwdZ = gf.z;
+        smoothVy = 0.0;
+        turnRate = 0.0;
+        lastProbeHit = false;
+        clearAir = false;
+        ticksSinceProbe = 0;
+    }
 
+    /**
+     * Impostor tick: centre + fixed offset, flying along the flock heading. The flock centre has already been
+     * advanced by {@link Flock#tick}.
+     */
+    public void impostorStep(Flock flock) {
+        if (store == null) return;
 
+        beginCheapStep();
+
+        MutableVec3d gf = flock.getGroupForward();
+        double speed = flock.getSpeed();
+        double velX = gf.x * speed;
+        double velZ = gf.z * speed;
+
+        orientation.setTargetRoll(0f, 3.0f);
+        orientation.updateFromVelocity(velX, 0.0, velZ, 6.0f, 4.0f, 3.0f);
+        lastFwdX = gf.x;
+        lastFwdZ = gf.z;
+        smoothVy = 0.0;
+
+        writeNext(flock.getCenterX() + impostorOffX, flock.getCenterY() + impostorOffY,
+                flock.getCenterZ() + impostorOffZ, velX, 0.0, velZ, gf.x, 0.0, gf.z);
+    }
+
+    private void beginCheapStep() {
+        prevYaw = orientation.yawDeg;
+        prevPitch = orientation.pitchDeg;
+        prevRoll = orientation.rollDeg;
+        ageTicks++;
+        // no ray this tick; don't let the scheduler count it as waiting for one
+        probeGranted = false;
+        probeScheduled = false;
+    }
+
+    private void writeNext(double x, double y, double z, double vx, double vy, double vz,
+                           double fx, double fy, double fz) {
+        final BirdStore s = store;
+        final int i = slot;
+        s.nextX[i] = x;
+        s.nextY[i] = y;
+        s.nextZ[i] = z;
+        s.nextVelX[i] = vx;
+        s.nextVelY[i] = vy;
+        s.nextVelZ[i] = vz;
+        s.nextFwdX[i] = fx;
+        s.nextFwdY[i] = fy;
+        s.nextFwdZ[i] = fz;
+        pendingCommit = true;
+        fullStep = false;
+    }
+
+    /**
+     * Commit phase (simulation thread, in slot order): publishes the computed state and starts calls.
+     * Does nothing if no compute step is pending.
+     */
+    public void commitStep(BirdWorld world) {
+        if (!pendingCommit || store == null) return;
+        pendingCommit = false;
+        final BirdStore s = store;
+        final int i = slot;
+        s.prevX[i] = s.x[i];
+        s.prevY[i] = s.y[i];
+        s.prevZ[i] = s.z[i];
+
+        s.x[i] = s.nextX[i];
+        s.y[i] = s.nextY[i];
+        s.z[i] = s.nextZ[i];
+        s.velX[i] = s.nextVelX[i];
+        s.velY[i] = s.nextVelY[i];
+        s.velZ[i] = s.nextVelZ[i];
+        s.fwdX[i] = s.nextFwdX[i];
+        s.fwdY[i] = s.nextFwdY[i];
+        s.fwdZ[i] = s.nextFwdZ[i];
+
+        // calls are scheduled by full ticks only (LOD in-between / far ticks stay silent)
+        if (fullStep) tryPlayCall(world, world.getTotalWorldTime(), species.viewForTime(world.isDaytime()));
     }
 
-    private Vec3d computeDesiredDirection(World world) {
+    private void computeDesiredDirection(BirdWorld world, MutableVec3d out) {
+        double px = store.x[slot];
+        double py = store.y[slot];
+        double pz = store.z[slot];
         if (mode == Mode.GLIDE) {
-            Vec3d to = waypoint.subtract(pos);
-            if (to.lengthSquared() < 16.0) {
+            out.set(waypointX - px, waypointY - py, waypointZ - pz);
+            if (out.lengthSquared() < 16.0) {
                 // reached waypoint -> pick another glide waypoint
                 pickGlideWaypoint(world);
-                to = waypoint.subtract(pos);
+                out.set(waypointX - px, waypointY - py, waypointZ - pz);
             }
-            return to.normalize();
+            out.normalize();
         } else {
             // circle: tangent direction around circleCenter
-            Vec3d toCenter = circleCenter.subtract(pos);
-            Vec3d radial = new Vec3d(toCenter.x, 0, toCenter.z);
-            if (radial.lengthSquared() < 1e-6) radial = new Vec3d(1, 0, 0);
-            radial = radial.normalize();
+            double rx = circleCenterX - px;
+            double rz = circleCenterZ - pz;
+            double r2 = rx * rx + rz * rz;
+            if (r2 < 1e-6) {
+                rx = 1;
+                rz = 0;
+                r2 = 1;
+            }
+            double rl = Math.sqrt(r2);
+            rx /= rl;
+            rz /= rl;
 
             // Tangent vector (clockwise or counter-clockwise)
             boolean cw = (birdSeed & 1L) == 0L;
-            Vec3d tangent = cw ? new Vec3d(-radial.z, 0, radial.x) : new Vec3d(radial.z, 0, -radial.x);
+            double tx = cw ? -rz : rz;
+            double tz = cw ? rx : -rx;
 
             // Gentle correction to stay near radius
-            double dist = new Vec3d(pos.x - circleCenter.x, 0, pos.z - circleCenter.z).length();
+            double ox = px - circleCenterX;
+            double oz = pz - circleCenterZ;
+            double dist = Math.sqrt(ox * ox + oz * oz);
             double err = (circleRadius - dist);
-            Vec3d correction = radial.scale(-err * 0.02);
+            double k = -err * 0.02;
 
-            return tangent.add(correction).normalize();
+            out.set(tx + rx * k, 0, tz + rz * k).normalize();
         }
     }
 
-    private double computeTargetY(World world) {
-        double ground = getGroundY(world, pos.x, pos.z);
+    private double computeTargetY(BirdWorld world) {
+        // Smooth ground for the cruising band (clearance uses the max samples in computeRequiredMinY)
+        double ground = world.heightBilinear(store.x[slot], store.z[slot]);
 
         // Prefer a high band but allow variation
         BirdSpecies.BirdSpeciesView v = species.viewForTime(world.isDaytime());
@@ -402,7 +770,7 @@ public class ClientBird {
         return ground + desiredAbove;
     }
 
-    private double pseudoNoise01(World world) {
+    private double pseudoNoise01(BirdWorld world) {
         // deterministic, slow-changing based on time and birdSeed
         long t = world.getTotalWorldTime() / 40; // changes every 2 seconds
         long x = birdSeed ^ (t * 0x9E3779B97F4A7C15L);
@@ -412,72 +780,141 @@ public class ClientBird {
         return ((x & 0xFFFF) / (double) 0xFFFF);
     }
 
-    private Vec3d obstacleAvoidance(World world) {
-        // Ray trace forward; if we’d hit something, suggest a slight turn/up
-        Vec3d start = pos;
-        Vec3d end = pos.add(forward.scale(16));
+    /**
+     * Forward obstacle check; if we’d hit something, writes a slight sideways turn into {@code out}.
+     * <p>
+     * No ray is cast when the height field shows clear air along the probe. Otherwise the ray only runs if the
+     * {@link ObstacleProbeScheduler} granted one this tick; if not, the last result is reused for a few ticks.
+     *
+     * @return true if an obstacle is ahead
+     */
+    private boolean obstacleAvoidance(BirdWorld world, MutableVec3d out) {
+        double fx = forward.x;
+        double fy = forward.y;
+        double fz = forward.z;
+        double sx = store.x[slot];
+        double sy = store.y[slot];
+        double sz = store.z[slot];
+        double ex = sx + fx * OBSTACLE_PROBE_DIST;
+        double ey = sy + fy * OBSTACLE_PROBE_DIST;
+        double ez = sz + fz * OBSTACLE_PROBE_DIST;
+
+        boolean granted = probeGranted || !probeScheduled;
+        probeGranted = false;
+        probeScheduled = false;
+        ticksSinceProbe++;
+
+        // Well above every column the probe crosses -> nothing to hit (except non-opaque blocks like glass)
+        int top = world.maxAlongSegment(sx, sz, ex, ez, 1.0);
+        if (Math.min(sy, ey) > top + CLEAR_AIR_MARGIN) {
+            clearAir = true;
+            lastProbeHit = false;
+            return false;
+        }
+        clearAir = false;
+
+        boolean hit;
+        if (granted) {
+            hit = BlockRaycast.hitsSolid(world, sx, sy, sz, ex, ey, ez, rayCursor);
+            lastProbeHit = hit;
+            ticksSinceProbe = 0;
+        } else {
+            // hysteresis: keep the last answer for a short window
+            hit = lastProbeHit && ticksSinceProbe <= BirdConfig.obstacleReuseTicks;
+        }
 
-        RayTraceResult hit = world.rayTraceBlocks(start, end, false, true, false);
-        if (hit != null && hit.typeOfHit == RayTraceResult.Type.BLOCK) {
+        if (hit) {
             // steer a bit sideways (deterministic)
             boolean left = (birdSeed & 2L) == 0L;
-            Vec3d side = left ? new Vec3d(-forward.z, 0, forward.x) : new Vec3d(forward.z, 0, -forward.x);
-            return forward.add(side.scale(0.8)).normalize();
+            double sideX = left ? -fz : fz;
+            double sideZ = left ? fx : -fx;
+            out.set(fx + sideX * 0.8, fy, fz + sideZ * 0.8).normalize();
+            return true;
         }
-        return null;
+        return false;
     }
 
     public long getId() {
         return birdSeed;
     } // use your existing birdSeed field
 
-    private double getGroundAheadY(World world, double lookAheadDist) {
-        Vec3d f = new Vec3d(forward.x, 0, forward.z);
-        if (f.lengthSquared() < 1e-6) f = new Vec3d(0, 0, 1);
-        f = f.normalize();
+    public int getSlot() {
+        return slot;
+    }
 
-        double ax = pos.x + f.x * lookAheadDist;
-        double az = pos.z + f.z * lookAheadDist;
-        return getGroundY(world, ax, az);
+    /**
+     * False once the bird has been removed from the store (despawned / cleared).
+     */
+    public boolean isAlive() {
+        return store != null;
     }
 
-    private double computeRequiredMinY(World world) {
-        // Sample ground along the forward path, including near the next position.
-        // More samples = fewer "gotcha" cliffs.
-        double[] ds = {0, 6, 12, 18, 26, 34};
+    public double getX() {
+        return store.x[slot];
+    }
 
-        double gMax = -1e9;
-        for (double d : ds) {
-            double g = getGroundAheadY(world, d);
-            if (g > gMax) gMax = g;
-        }
+    // Current glide waypoint (async terrain prefetch)
+    public double getWaypointX() {
+        return waypointX;
+    }
 
-        BirdSpecies.BirdSpeciesView v = species.viewForTime(world.isDaytime());
-        return gMax + v.minAltitudeAboveGround();
+    public double getWaypointZ() {
+        return waypointZ;
+    }
+
+    public double getY() {
+        return store.y[slot];
+    }
+
+    public double getZ() {
+        return store.z[slot];
+    }
+
+    public double getVelX() {
+        return store.velX[slot];
+    }
+
+    public double getVelY() {
+        return store.velY[slot];
+    }
+
+    public double getVelZ() {
+        return store.velZ[slot];
     }
 
-    private double computeRequiredMinYAt(World world, Vec3d atPos) {
+    private double computeRequiredMinY(BirdWorld world) {
+        // Sample ground along the forward path, including near the next position.
+        // More samples = fewer "gotcha" cliffs.
+        return computeRequiredMinYAt(world, store.x[slot], store.z[slot], AHEAD_SAMPLES);
+    }
+
+    private double computeRequiredMinYAt(BirdWorld world, double atX, double atZ) {
         // Same as computeRequiredMinY, but centered at an arbitrary position (nextPos).
         // We sample forward from atPos to handle steep terrain right in front of the next step.
-        Vec3d f = new Vec3d(forward.x, 0, forward.z);
-        if (f.lengthSquared() < 1e-6) f = new Vec3d(0, 0, 1);
-        f = f.normalize();
-
-        double[] ds = {0, 6, 12, 18, 26};
-
-        double gMax = -1e9;
-        for (double d : ds) {
-            double ax = atPos.x + f.x * d;
-            double az = atPos.z + f.z * d;
-            double g = getGroundY(world, ax, az);
-            if (g > gMax) gMax = g;
+        return computeRequiredMinYAt(world, atX, atZ, NEXT_STEP_SAMPLES);
+    }
+
+    private double computeRequiredMinYAt(BirdWorld world, double atX, double atZ, double[] ds) {
+        // working heading of the current compute step
+        double fx = forward.x;
+        double fz = forward.z;
+        double f2 = fx * fx + fz * fz;
+        if (f2 < 1e-6) {
+            fx = 0;
+            fz = 1;
+        } else {
+            double fl = Math.sqrt(f2);
+            fx /= fl;
+            fz /= fl;
         }
 
+        double gMax = world.maxAlongRay(atX, atZ, fx, fz, ds);
+
         BirdSpecies.BirdSpeciesView v = species.viewForTime(world.isDaytime());
         return gMax + v.minAltitudeAboveGround();
     }
 
-    private void tryPlayCall(World world, long now, BirdSpecies.BirdSpeciesView v) {
+    private void tryPlayCall(BirdWorld world, long now, BirdSpecies.BirdSpeciesView v) {
         if (world == null || v == null) return;
         if (species == null) return;
 
@@ -517,7 +954,7 @@ public class ClientBird {
         pit = (float) Math.max(0.5, Math.min(2.0, pit));
 
         float maxDist = (float) sv.soundMaxDistance();
-        float distNow = distanceToPlayer(world, this.pos);
+        float distNow = distanceToPlayer(world, store.x[slot], store.y[slot], store.z[slot]);
 
         float fadeStart = (float) sv.soundFadeStart();
         float fadePower = (float) sv.soundFadePower();
@@ -531,15 +968,16 @@ public class ClientBird {
         SoundEvent evt = BirdSoundSystem.getOrCreateEvent(rl);
 
 
-        BirdCallSound sound =
-                new BirdCallSound(this, world, evt, vol, pit, maxDist, fadeStart, fadePower);
-
-
-        BirdSoundSystem.playCallIfAllowed(getId(), flockId, type, sound);
+        world.playCall(this, type, evt, vol, pit, maxDist, fadeStart, fadePower);
 
         scheduleNextCall(world, now, sv, false);
     }
 
     public enum Mode {GLIDE, CIRCLE}
 
+    /**
+     * NEAR: full tick every tick. MID: full tick every N ticks, dead-reckoned in between. FAR: analytic path.
+     */
+    public enum Lod {NEAR, MID, FAR}
+
 }
@@ -0,0 +1,115 @@
+package com.jubitus.birds.client;
+
+/**
+ * Hands out the per-tick budget of forward obstacle rays.
+ * <p>
+ * Runs sequentially before the compute phase, so the choice is deterministic. Birds that skip the full tick
+ * this tick (LOD) and birds that were in clear air last tick don't compete (the height field check skips their
+ * probe). The rest are ranked by time since their last ray, a recent hit, closeness to the terrain floor and
+ * how fast they are turning; the top {@code budget} get a ray, the others reuse their last result
+ * (see {@code ClientBird.obstacleAvoidance}).
+ */
+public class ObstacleProbeScheduler {
+
+    // min-heap of the best candidates so far (root = weakest)
+    private int[] heapSlot = new int[64];
+    private double[] heapScore = new double[64];
+    private long[] heapId = new long[64];
+    private int heapSize;
+
+    private int grantedLastTick;
+
+    private static double priority(ClientBird b) {
+        double p = b.ticksSinceProbe;
+        if (b.lastProbeHit) p += 6.0;
+        if (b.floorClearance < 12.0) p += 6.0;
+        p += b.turnRate * 60.0; // ~4 deg/tick turn = +4
+        return p;
+    }
+
+    public int getGrantedLastTick() {
+        return grantedLastTick;
+    }
+
+    /**
+     * @param budget max rays this tick (0 = no ray at all, results are only reused)
+     */
+    public void schedule(BirdStore store, int budget) {
+        int n = store.size();
+        ensureCapacity(budget);
+        heapSize = 0;
+
+        for (int i = 0; i < n; i++) {
+            ClientBird b = store.get(i);
+            b.probeScheduled = true;
+            b.probeGranted = false;
+            if (!b.fullTickDue || b.clearAir || budget <= 0) continue;
+
+            double score = priority(b);
+            long id = b.getId();
+            if (heapSize < budget) {
+                push(i, score, id);
+            } else if (better(score, id, heapScore[0], heapId[0])) {
+                heapSlot[0] = i;
+                heapScore[0] = score;
+                heapId[0] = id;
+                siftDown(0);
+            }
+        }
+
+        for (int k = 0; k < heapSize; k++) {
+            store.get(heapSlot[k]).probeGranted = true;
+        }
+        grantedLastTick = heapSize;
+    }
+
+    // Higher score wins; ties broken by id so the result doesn't depend on slot order
+    private static boolean better(double s1, long id1, double s2, long id2) {
+        if (s1 != s2) return s1 > s2;
+        return id1 < id2;
+    }
+
+    private void push(int slot, double score, long id) {
+        int i = heapSize++;
+        heapSlot[i] = slot;
+        heapScore[i] = score;
+        heapId[i] = id;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heapScore[parent], heapId[parent], heapScore[i], heapId[i])) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int l = 2 * i + 1;
+            if (l >= heapSize) return;
+            int r = l + 1;
+            int weakest = (r < heapSize && better(heapScore[l], heapId[l], heapScore[r], heapId[r])) ? r : l;
+            if (!better(heapScore[i], heapId[i], heapScore[weakest], heapId[weakest])) return;
+            swap(i, weakest);
+            i = weakest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int s = heapSlot[a];
+        heapSlot[a] = heapSlot[b];
+        heapSlot[b] = s;
+        double d = heapScore[a];
+        heapScore[a] = heapScore[b];
+        heapScore[b] = d;
+        long id = heapId[a];
+        heapId[a] = heapId[b];
+        heapId[b] = id;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= heapSlot.length) return;
+        heapSlot = new int[n];
+        heapScore = new double[n];
+        heapId = new long[n];
+    }
+}
@@ -0,0 +1,101 @@
+package com.jubitus.birds.client.commands;
+
+import com.jubitus.birds.client.BirdProfiler;
+import com.jubitus.birds.client.config.BirdConfig;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraftforge.client.IClientCommand;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+public class CommandJubitusBirds extends CommandBase implements IClientCommand {
+
+    @Override
+    public String getName() {
+        return "jubitusbirds";
+    }
+
+    @Override
+    public String getUsage(ICommandSender sender) {
+        return "/jubitusbirds stats [on|off|reset]";
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) {
+        if (args.length < 1 || !args[0].equalsIgnoreCase("stats")) {
+            sender.sendMessage(new TextComponentString("§eUsage: " + getUsage(sender)));
+            return;
+        }
+
+        String mode = (args.length >= 2) ? args[1].toLowerCase(Locale.ROOT) : "";
+        switch (mode) {
+            case "on":
+                // Runtime only; the config value applies again on the next config reload
+                BirdProfiler.reset();
+                BirdConfig.profilerEnabled = true;
+                sender.sendMessage(new TextComponentString("§a[JubitusBirds] Profiler on. Run /jubitusbirds stats in a few seconds."));
+                return;
+            case "off":
+                BirdConfig.profilerEnabled = false;
+                sender.sendMessage(new TextComponentString("§a[JubitusBirds] Profiler off."));
+                return;
+            case "reset":
+                BirdProfiler.reset();
+                sender.sendMessage(new TextComponentString("§a[JubitusBirds] Profiler samples cleared."));
+                return;
+            case "":
+                break;
+            default:
+                sender.sendMessage(new TextComponentString("§eUsage: " + getUsage(sender)));
+                return;
+        }
+
+        if (!BirdProfiler.isEnabled()) {
+            sender.sendMessage(new TextComponentString("§e[JubitusBirds] Profiler is off: /jubitusbirds stats on"));
+            return;
+        }
+
+        sender.sendMessage(new TextComponentString("§a[JubitusBirds] Last " + BirdProfiler.WINDOW + " samples (p50 / p99 / max):"));
+        for (BirdProfiler.Phase p : BirdProfiler.Phase.values()) {
+            BirdProfiler.Stats s = BirdProfiler.stats(p);
+            sender.sendMessage(new TextComponentString(String.format(Locale.ROOT,
+                    "§7%s: §f%.1f / %.1f / %.1f µs §7(n=%d)",
+                    p.label, s.p50 / 1000.0, s.p99 / 1000.0, s.max / 1000.0, s.samples)));
+        }
+        for (BirdProfiler.Counter c : BirdProfiler.Counter.values()) {
+            BirdProfiler.Stats s = BirdProfiler.stats(c);
+            sender.sendMessage(new TextComponentString(String.format(Locale.ROOT,
+                    "§7%s: §f%d / %d / %d §7(n=%d)",
+                    c.label, s.p50, s.p99, s.max, s.samples)));
+        }
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 0;
+    }
+
+    @Override
+    public boolean checkPermission(MinecraftServer server, ICommandSender sender) {
+        return true;
+    }
+
+    @Override
+    public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable net.minecraft.util.math.BlockPos targetPos) {
+        if (args.length == 1) return getListOfStringsMatchingLastWord(args, "stats");
+        if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+            return getListOfStringsMatchingLastWord(args, "on", "off", "reset");
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean allowUsageWithoutPrefix(ICommandSender sender, String message) {
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.jubitus.birds.client.commands;
 
+import com.jubitus.birds.client.BirdStore;
 import com.jubitus.birds.client.ClientBird;
 import com.jubitus.birds.client.config.BirdConfig;
 import com.jubitus.birds.client.sound.BirdCallSound;
@@ -61,7 +62,6 @@ public class CommandJubitusBirdsPlaySound extends CommandBase implements IClient
 
 // Fake bird that just follows player position (so you can test moving sound)
         ClientBird dummy = new ClientBird(
-                mc.world,
                 BirdSpeciesRegistry.pickForBiome(mc.world.getBiome(mc.player.getPosition()), new java.util.Random(), mc.world.isDaytime()),
                 999999L,
                 new Vec3d(mc.player.posX, mc.player.posY + mc.player.getEyeHeight(), mc.player.posZ),
@@ -73,6 +73,8 @@ public class CommandJubitusBirdsPlaySound extends CommandBase implements IClient
                 return 999999L;
             }
         };
+        // Not ticked: a private store just gives the sound a position to follow
+        new BirdStore().add(dummy);
 
 // Use a sane test volume/pitch. Actual distance behavior comes from sounds.json attenuation_distance.
         float vol = (float) BirdConfig.masterBirdVolume;
@@ -27,6 +27,7 @@ public class BirdConfig {
     public static double spawnBorderBuffer = 16.0;
     public static double despawnBorderBuffer = 32.0;
     public static int maxBirdsAroundPlayer = 32;
+    public static double birdBudgetMs = 3.0;
 
     // Spawning system (global)
     public static int spawnCellSize = 128;
@@ -47,6 +48,23 @@ public class BirdConfig {
     // Legacy/optional
     public static double despawnDistance = 256.0;
 
+    // Performance
+    public static boolean parallelTick = false;
+    public static int parallelThreads = 0;
+    public static int parallelMinBirds = 192;
+    public static boolean asyncSimulation = false;
+    public static int obstacleRaysPerTick = 48;
+    public static int obstacleReuseTicks = 8;
+    public static boolean lodEnabled = true;
+    public static double lodNearDistance = 64.0;
+    public static int lodMidTickInterval = 4;
+    public static double lodFarDistance = 0.0;
+    public static double flockImpostorDistance = 0.0;
+    public static boolean instancedRendering = false;
+    public static boolean sortFadingBirds = true;
+    public static double billboardDistance = 0.0;
+    public static boolean profilerEnabled = false;
+
     public static void reloadFromGuiConfig() {
 
         // ✅ NEW (do this first or anywhere)
@@ -72,6 +90,7 @@ public class BirdConfig {
         spawnBorderBuffer = JubitusBirdsConfig.BORDERS.spawnBorderBuffer;
         despawnBorderBuffer = JubitusBirdsConfig.BORDERS.despawnBorderBuffer;
         maxBirdsAroundPlayer = JubitusBirdsConfig.BORDERS.maxBirdsAroundPlayer;
+        birdBudgetMs = JubitusBirdsConfig.BORDERS.birdBudgetMs;
         despawnDistance = JubitusBirdsConfig.BORDERS.despawnDistance;
 
         // Spawning
@@ -83,10 +102,37 @@ public class BirdConfig {
         underwaterSmooth = JubitusBirdsConfig.SOUND.underwaterSmooth;
         underwaterPitchMul = JubitusBirdsConfig.SOUND.underwaterPitchMul;
 
+        // Performance
+        parallelTick = JubitusBirdsConfig.PERFORMANCE.parallelTick;
+        parallelThreads = JubitusBirdsConfig.PERFORMANCE.parallelThreads;
+        parallelMinBirds = JubitusBirdsConfig.PERFORMANCE.parallelMinBirds;
+        asyncSimulation = JubitusBirdsConfig.PERFORMANCE.asyncSimulation;
+        obstacleRaysPerTick = JubitusBirdsConfig.PERFORMANCE.obstacleRaysPerTick;
+        obstacleReuseTicks = JubitusBirdsConfig.PERFORMANCE.obstacleReuseTicks;
+        lodEnabled = JubitusBirdsConfig.PERFORMANCE.lodEnabled;
+        lodNearDistance = JubitusBirdsConfig.PERFORMANCE.lodNearDistance;
+        lodMidTickInterval = JubitusBirdsConfig.PERFORMANCE.lodMidTickInterval;
+        lodFarDistance = JubitusBirdsConfig.PERFORMANCE.lodFarDistance;
+        flockImpostorDistance = JubitusBirdsConfig.PERFORMANCE.flockImpostorDistance;
+        instancedRendering = JubitusBirdsConfig.PERFORMANCE.instancedRendering;
+        sortFadingBirds = JubitusBirdsConfig.PERFORMANCE.sortFadingBirds;
+        billboardDistance = JubitusBirdsConfig.PERFORMANCE.billboardDistance;
+        profilerEnabled = JubitusBirdsConfig.PERFORMANCE.profilerEnabled;
+
         // Safety clamps
         if (spawnCellSize < 16) spawnCellSize = 16;
+        if (birdBudgetMs < 0) birdBudgetMs = 0;
         if (spawnTimeWindowTicks < 1) spawnTimeWindowTicks = 1;
         if (spawnRadiusCells < 0) spawnRadiusCells = 0;
+        if (parallelThreads < 0) parallelThreads = 0;
+        if (parallelMinBirds < 1) parallelMinBirds = 1;
+        if (obstacleRaysPerTick < 0) obstacleRaysPerTick = 0;
+        if (obstacleReuseTicks < 0) obstacleReuseTicks = 0;
+        if (lodNearDistance < 0) lodNearDistance = 0;
+        if (lodMidTickInterval < 1) lodMidTickInterval = 1;
+        if (lodFarDistance < 0) lodFarDistance = 0;
+        if (flockImpostorDistance < 0) flockImpostorDistance = -1;
+        if (billboardDistance < 0) billboardDistance = -1;
 
         // ✅ Safety clamps for sound too
         if (masterBirdVolume < 0) masterBirdVolume = 0;
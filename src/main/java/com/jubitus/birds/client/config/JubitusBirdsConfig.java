@@ -16,6 +16,9 @@ public class JubitusBirdsConfig {
     @Config.Name("sound")
     public static final Sound SOUND = new Sound();
 
+    @Config.Name("performance")
+    public static final Performance PERFORMANCE = new Performance();
+
     public static class Sound {
 
         @Config.Comment({
@@ -155,6 +158,16 @@ public class JubitusBirdsConfig {
         @Config.RangeInt(min = 0, max = 2048)
         public int maxBirdsAroundPlayer = 128;
 
+        @Config.Comment({
+                "Time budget (in MILLISECONDS per client tick) for birds on the game thread: simulation plus rendering",
+                "(with asyncSimulation, only the wait for the step and the hand-off count, not the step itself).",
+                "The bird cap (starting at maxBirdsAroundPlayer, between 1/8 and 2x of it), the LOD distances and the",
+                "spawn radius adapt to stay under it; the farthest birds / birds behind the camera go first.",
+                "0 = off (fixed cap)."
+        })
+        @Config.RangeDouble(min = 0.0, max = 50.0)
+        public double birdBudgetMs = 3.0;
+
         @Config.Comment({
                 "Legacy/optional distance cap (in BLOCKS) from the camera/player."
         })
@@ -187,4 +200,103 @@ public class JubitusBirdsConfig {
         public int spawnRadiusCells = 2;
     }
 
+    public static class Performance {
+
+        @Config.Comment({
+                "Compute bird flight on a pool of worker threads (fork-join).",
+                "Sounds and state updates still happen on the client thread; results are identical to single-threaded."
+        })
+        public boolean parallelTick = false;
+
+        @Config.Comment({
+                "Worker threads for parallelTick. 0 = automatic (CPU cores - 1)."
+        })
+        @Config.RangeInt(min = 0, max = 64)
+        public int parallelThreads = 0;
+
+        @Config.Comment({
+                "Below this many birds the tick stays single-threaded (the fork-join overhead isn't worth it)."
+        })
+        @Config.RangeInt(min = 1, max = 4096)
+        public int parallelMinBirds = 192;
+
+        @Config.Comment({
+                "Run the bird simulation on its own thread, overlapping the rest of the game.",
+                "It works from a copy of the nearby terrain; sounds, spawning and despawning stay on the client thread.",
+                "Birds react one tick later than with the regular tick. Can be combined with parallelTick."
+        })
+        public boolean asyncSimulation = false;
+
+        @Config.Comment({
+                "Max forward obstacle ray traces per tick (all birds together).",
+                "Birds in clear air don't need one; the rest take turns by priority (near terrain / turning / last hit)."
+        })
+        @Config.RangeInt(min = 0, max = 4096)
+        public int obstacleRaysPerTick = 48;
+
+        @Config.Comment({
+                "How many ticks a bird keeps reusing its last obstacle hit while waiting for a new ray."
+        })
+        @Config.RangeInt(min = 0, max = 100)
+        public int obstacleReuseTicks = 8;
+
+        @Config.Comment({
+                "Level of detail: simulate distant birds more cheaply.",
+                "Near birds get the full tick, mid-range birds a full tick every few ticks (dead-reckoned in between),",
+                "far birds (beyond the fog) follow their path analytically without terrain/boids/ray queries."
+        })
+        public boolean lodEnabled = true;
+
+        @Config.Comment({
+                "Birds closer than this (blocks) to the camera always get the full tick."
+        })
+        @Config.RangeDouble(min = 0.0, max = 1024.0)
+        public double lodNearDistance = 64.0;
+
+        @Config.Comment({
+                "Mid-range birds run the full tick once every N ticks."
+        })
+        @Config.RangeInt(min = 1, max = 20)
+        public int lodMidTickInterval = 4;
+
+        @Config.Comment({
+                "Birds farther than this (blocks) use the analytic far tier. 0 = automatic (fog end / render distance).",
+                "Far birds keep their current glide or circle: mode timers stay frozen until they come back in range."
+        })
+        @Config.RangeDouble(min = 0.0, max = 4096.0)
+        public double lodFarDistance = 0.0;
+
+        @Config.Comment({
+                "Flocks whose centre is farther than this (blocks) are simulated as one point: members keep fixed",
+                "offsets from the flock centre until it comes back into range. 0 = same as the far LOD distance, -1 = off."
+        })
+        @Config.RangeDouble(min = -1.0, max = 4096.0)
+        public double flockImpostorDistance = 0.0;
+
+        @Config.Comment({
+                "Draw birds with GPU instancing: a static quad mesh plus a small per-bird stream, flap and rotation",
+                "done in a shader. Needs OpenGL 3.3; falls back to the regular renderer when unavailable."
+        })
+        public boolean instancedRendering = false;
+
+        @Config.Comment({
+                "Draw fully visible birds without blending (depth-tested in any order) and only sort the few birds",
+                "fading into the fog back to front. Off = every bird in one blended pass, unsorted."
+        })
+        public boolean sortFadingBirds = true;
+
+        @Config.Comment({
+                "Birds farther than this (blocks) are drawn as simple camera-facing quads (no rotation / wing flap).",
+                "0 = automatic (where the fog fade starts), -1 = off."
+        })
+        @Config.RangeDouble(min = -1.0, max = 4096.0)
+        public double billboardDistance = 0.0;
+
+        @Config.Comment({
+                "Record per-phase timings and counters (spatial rebuild, flock/bird tick, despawn, spawn, sound, render,",
+                "LOD tiers, raycasts, height lookups, draw calls). Shown on the F3 screen and by /jubitusbirds stats."
+        })
+        public boolean profilerEnabled = false;
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.jubitus.birds.client.gui;
 
+import com.jubitus.birds.render.BirdTextureAtlas;
 import com.jubitus.birds.species.BirdSpecies;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.texture.ITextureObject;
@@ -31,6 +32,7 @@ public final class ClientTextureReloader {
 
     /**
      * Purges these textures from MC texture cache so they get reloaded from disk/resource pack next bind.
+     * They also leave the bird atlas (only their page is repacked, if at all); the next load puts them back.
      */
     public static void purge(List<ResourceLocation> tex) {
         if (tex == null || tex.isEmpty()) return;
@@ -38,6 +40,7 @@ public final class ClientTextureReloader {
         Minecraft mc = Minecraft.getMinecraft();
         for (ResourceLocation rl : tex) {
             if (rl == null) continue;
+            BirdTextureAtlas.INSTANCE.remove(rl);
             ITextureObject obj = mc.getTextureManager().getTexture(rl);
             if (obj != null) {
                 // delete GL texture + remove from map
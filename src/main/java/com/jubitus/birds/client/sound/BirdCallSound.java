@@ -70,9 +70,9 @@ public class BirdCallSound extends MovingSound {
         this.attenuationType = AttenuationType.NONE;
 
         // initial position
-        this.xPosF = (float) bird.pos.x;
-        this.yPosF = (float) bird.pos.y;
-        this.zPosF = (float) bird.pos.z;
+        this.xPosF = (float) bird.getX();
+        this.yPosF = (float) bird.getY();
+        this.zPosF = (float) bird.getZ();
 
         // initialize current values
         this.pitch = basePitch;
@@ -139,15 +139,15 @@ public class BirdCallSound extends MovingSound {
 
     @Override
     public void update() {
-        if (bird == null || world == null || bird.pos == null) {
+        if (bird == null || world == null || !bird.isAlive()) {
             this.donePlaying = true;
             return;
         }
 
         // Follow bird
-        float bx = (float) bird.pos.x;
-        float by = (float) bird.pos.y;
-        float bz = (float) bird.pos.z;
+        float bx = (float) bird.getX();
+        float by = (float) bird.getY();
+        float bz = (float) bird.getZ();
 
         this.xPosF = bx;
         this.yPosF = by;
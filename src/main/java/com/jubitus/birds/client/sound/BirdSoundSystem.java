@@ -226,7 +226,9 @@ public class BirdSoundSystem {
      * Do we have any sounds for this default_species + type?
      */
     public static boolean hasSounds(String soundKey, BirdCallType type) {
-        SpeciesPools pools = SPECIES_SOUNDS.get(safe(soundKey));
+        // Fast path: soundKey is normally already sanitized (folder name), so skip the regex when it hits
+        SpeciesPools pools = (soundKey != null) ? SPECIES_SOUNDS.get(soundKey) : null;
+        if (pools == null) pools = SPECIES_SOUNDS.get(safe(soundKey));
         if (pools == null) return false;
 
         List<String> l = (type == BirdCallType.FLOCK) ? pools.flock : pools.single;
@@ -16,23 +16,32 @@ public class BirdOrientation {
     }
 
     public void updateFromVelocity(Vec3d vel, float maxYawStepDeg, float maxPitchStepDeg, float maxRollStepDeg) {
+        updateFromVelocity(vel.x, vel.y, vel.z, maxYawStepDeg, maxPitchStepDeg, maxRollStepDeg);
+    }
+
+    public void updateFromVelocity(double velX, double velY, double velZ,
+                                   float maxYawStepDeg, float maxPitchStepDeg, float maxRollStepDeg) {
         // If nearly stationary: keep last angles (prevents jitter)
-        if (vel.lengthSquared() < 1e-4) {
+        double len2 = velX * velX + velY * velY + velZ * velZ;
+        if (len2 < 1e-4) {
             yawDeg = lastYaw;
             pitchDeg = lastPitch;
             rollDeg = lastRoll;
             return;
         }
 
-        Vec3d v = vel.normalize();
+        double len = Math.sqrt(len2);
+        double vx = velX / len;
+        double vy = velY / len;
+        double vz = velZ / len;
 
 // We want forward = +Z
 // Yaw: rotation around Y so +Z points toward velocity XZ
-        float targetYaw = (float) Math.toDegrees(Math.atan2(v.x, v.z));
+        float targetYaw = (float) Math.toDegrees(Math.atan2(vx, vz));
 
 // Pitch: nose up/down based on v.y vs horizontal speed
-        double horiz = Math.sqrt(v.x * v.x + v.z * v.z);
-        float targetPitch = (float) -Math.toDegrees(Math.atan2(v.y, horiz));
+        double horiz = Math.sqrt(vx * vx + vz * vz);
+        float targetPitch = (float) -Math.toDegrees(Math.atan2(vy, horiz));
 
 
         yawDeg = approachAngle(lastYaw, targetYaw, maxYawStepDeg);
@@ -23,6 +23,56 @@ public class BirdSteering {
         return new Vec3d(blended.x, desiredForward.y, blended.z).normalize();
     }
 
+    /**
+     * In-place variant of {@link #limitTurnXZ(Vec3d, Vec3d, double)}: {@code forward} receives the result.
+     */
+    public static void limitTurnXZ(MutableVec3d forward, MutableVec3d desired, double maxTurnRad) {
+        double cx = forward.x;
+        double cz = forward.z;
+        double dx = desired.x;
+        double dz = desired.z;
+
+        double cl2 = cx * cx + cz * cz;
+        if (cl2 < 1e-8) {
+            cx = 0;
+            cz = 1;
+            cl2 = 1;
+        }
+        double dl2 = dx * dx + dz * dz;
+        if (dl2 < 1e-8) {
+            dx = 0;
+            dz = 1;
+            dl2 = 1;
+        }
+
+        double cl = Math.sqrt(cl2);
+        double dl = Math.sqrt(dl2);
+        cx /= cl;
+        cz /= cl;
+        dx /= dl;
+        dz /= dl;
+
+        double dot = clamp(cx * dx + cz * dz, -1.0, 1.0);
+        double angle = Math.acos(dot);
+        if (angle <= maxTurnRad) {
+            forward.set(dx, desired.y, dz).normalize();
+            return;
+        }
+
+        double t = maxTurnRad / angle;
+        double bx = cx * (1 - t) + dx * t;
+        double bz = cz * (1 - t) + dz * t;
+        double bl = Math.sqrt(bx * bx + bz * bz);
+        if (bl < 1.0E-4) {
+            bx = 0;
+            bz = 0;
+        } else {
+            bx /= bl;
+            bz /= bl;
+        }
+        forward.set(bx, desired.y, bz).normalize();
+    }
+
     public static double clamp(double v, double lo, double hi) {
         return Math.max(lo, Math.min(hi, v));
     }
@@ -0,0 +1,115 @@
+package com.jubitus.birds.client.util;
+
+import com.jubitus.birds.client.BirdStore;
+import com.jubitus.birds.client.ClientBird;
+import com.jubitus.birds.client.sound.BirdCallType;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * Everything the bird simulation reads from (and sends back to) the game.
+ * <p>
+ * {@link LiveBirdWorld} answers straight from the client world (client thread, or fork-join workers while it
+ * waits). {@link SnapshotBirdWorld} answers from copied terrain data so the simulation can run on its own
+ * thread while the client keeps going.
+ */
+public interface BirdWorld {
+
+    long getTotalWorldTime();
+
+    boolean isDaytime();
+
+    /**
+     * Same meaning as {@code World.getHeight(x, z)}: top solid/liquid block, 0 where no chunk is loaded.
+     */
+    int getHeight(int x, int z);
+
+    /**
+     * True if the block has a collision box (obstacle rays).
+     *
+     * @param cursor caller-owned scratch position (one per bird / thread)
+     */
+    boolean isSolid(int x, int y, int z, BlockPos.MutableBlockPos cursor);
+
+    // Listener (player eye) position, for call distance checks
+    double getViewerX();
+
+    double getViewerY();
+
+    double getViewerZ();
+
+    /**
+     * Starts a bird call (the live world plays it right away, the snapshot world queues it for the client thread).
+     */
+    void playCall(ClientBird bird, BirdCallType type, SoundEvent event, float volume, float pitch,
+                  float maxDist, float fadeStart, float fadePower);
+
+    /**
+     * Before several threads read this world at once (parallel compute phase, on the stepping thread).
+     * A world that fills caches lazily must fill them here and only read them until {@link #endParallelRead}.
+     */
+    default void beginParallelRead(BirdStore store) {
+    }
+
+    default void endParallelRead() {
+    }
+
+    // ---- height field helpers ----
+
+    default int getHeight(double x, double z) {
+        return getHeight(MathHelper.floor(x), MathHelper.floor(z));
+    }
+
+    /**
+     * Bilinear interpolation between the four nearest column centres. Smooth, but may undercut sharp peaks:
+     * use {@link #maxAlongRay} for clearance checks.
+     */
+    default double heightBilinear(double x, double z) {
+        double u = x - 0.5;
+        double v = z - 0.5;
+        int x0 = MathHelper.floor(u);
+        int z0 = MathHelper.floor(v);
+        double tx = u - x0;
+        double tz = v - z0;
+
+        double h00 = getHeight(x0, z0);
+        double h10 = getHeight(x0 + 1, z0);
+        double h01 = getHeight(x0, z0 + 1);
+        double h11 = getHeight(x0 + 1, z0 + 1);
+
+        double a = h00 + (h10 - h00) * tx;
+        double b = h01 + (h11 - h01) * tx;
+        return a + (b - a) * tz;
+    }
+
+    /**
+     * Highest column among the points {@code (x, z) + dir * d} for each {@code d} in {@code distances}.
+     */
+    default int maxAlongRay(double x, double z, double dirX, double dirZ, double[] distances) {
+        int max = Integer.MIN_VALUE;
+        for (double d : distances) {
+            int h = getHeight(x + dirX * d, z + dirZ * d);
+            if (h > max) max = h;
+        }
+        return max;
+    }
+
+    /**
+     * Highest column sampled every {@code step} blocks from (x0, z0) to (x1, z1), both ends included.
+     */
+    default int maxAlongSegment(double x0, double z0, double x1, double z1, double step) {
+        double dx = x1 - x0;
+        double dz = z1 - z0;
+        double len = Math.sqrt(dx * dx + dz * dz);
+        int n = (step > 0) ? (int) Math.ceil(len / step) : 0;
+
+        int max = getHeight(x1, z1);
+        for (int i = 0; i < n; i++) {
+            double t = (double) i / n;
+            int h = getHeight(x0 + dx * t, z0 + dz * t);
+            if (h > max) max = h;
+        }
+        return max;
+    }
+}
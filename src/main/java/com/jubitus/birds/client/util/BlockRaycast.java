@@ -0,0 +1,82 @@
+package com.jubitus.birds.client.util;
+
+import com.jubitus.birds.client.BirdProfiler;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * Garbage-free voxel ray march (Amanatides &amp; Woo) for obstacle probes.
+ * <p>
+ * Equivalent in intent to {@code world.rayTraceBlocks(start, end, false, true, false)}:
+ * liquids and blocks without a collision box are ignored. A block with any collision box
+ * counts as a full cell, which is conservative (slabs/fences steer the bird like a full block).
+ */
+public final class BlockRaycast {
+
+    private static final int MAX_STEPS = 200;
+
+    private BlockRaycast() {
+    }
+
+    /**
+     * @param cursor caller-owned scratch position (one per bird / thread)
+     * @return true if the segment passes through a block with a collision box
+     */
+    public static boolean hitsSolid(BirdWorld world,
+                                    double x0, double y0, double z0,
+                                    double x1, double y1, double z1,
+                                    BlockPos.MutableBlockPos cursor) {
+        BirdProfiler.count(BirdProfiler.Counter.RAYCASTS);
+        int ix = MathHelper.floor(x0);
+        int iy = MathHelper.floor(y0);
+        int iz = MathHelper.floor(z0);
+        int ex = MathHelper.floor(x1);
+        int ey = MathHelper.floor(y1);
+        int ez = MathHelper.floor(z1);
+
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double dz = z1 - z0;
+
+        int stepX = (dx > 0) ? 1 : ((dx < 0) ? -1 : 0);
+        int stepY = (dy > 0) ? 1 : ((dy < 0) ? -1 : 0);
+        int stepZ = (dz > 0) ? 1 : ((dz < 0) ? -1 : 0);
+
+        // t is the fraction of the segment travelled (0..1)
+        double tDeltaX = (stepX != 0) ? Math.abs(1.0 / dx) : Double.MAX_VALUE;
+        double tDeltaY = (stepY != 0) ? Math.abs(1.0 / dy) : Double.MAX_VALUE;
+        double tDeltaZ = (stepZ != 0) ? Math.abs(1.0 / dz) : Double.MAX_VALUE;
+
+        double tMaxX = (stepX > 0) ? (ix + 1 - x0) * tDeltaX : ((stepX < 0) ? (x0 - ix) * tDeltaX : Double.MAX_VALUE);
+        double tMaxY = (stepY > 0) ? (iy + 1 - y0) * tDeltaY : ((stepY < 0) ? (y0 - iy) * tDeltaY : Double.MAX_VALUE);
+        double tMaxZ = (stepZ > 0) ? (iz + 1 - z0) * tDeltaZ : ((stepZ < 0) ? (z0 - iz) * tDeltaZ : Double.MAX_VALUE);
+
+        for (int n = 0; n <= MAX_STEPS; n++) {
+            if (world.isSolid(ix, iy, iz, cursor)) return true;
+            if (ix == ex && iy == ey && iz == ez) return false;
+
+            if (tMaxX < tMaxY) {
+                if (tMaxX < tMaxZ) {
+                    if (tMaxX > 1.0) return false;
+                    ix += stepX;
+                    tMaxX += tDeltaX;
+                } else {
+                    if (tMaxZ > 1.0) return false;
+                    iz += stepZ;
+                    tMaxZ += tDeltaZ;
+                }
+            } else {
+                if (tMaxY < tMaxZ) {
+                    if (tMaxY > 1.0) return false;
+                    iy += stepY;
+                    tMaxY += tDeltaY;
+                } else {
+                    if (tMaxZ > 1.0) return false;
+                    iz += stepZ;
+                    tMaxZ += tDeltaZ;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,121 @@
+package com.jubitus.birds.client.util;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.Chunk;
+
+import java.util.Arrays;
+
+/**
+ * Biome at the centre of each spawn cell, so every cell picks its species from its own biome (and cells across
+ * a biome border differ).
+ * <p>
+ * Only biomes read from loaded chunks are kept. "Loaded" means the chunk provider holds a real chunk, as in
+ * {@link TerrainHeightCache}: {@code World.isBlockLoaded} is always true on the client, and an empty placeholder
+ * chunk answers with a biome generated from the wrong seed. While a centre isn't loaded, the nearest point towards
+ * it within {@code reach} of the player is sampled instead (not kept, and reported by {@link #lastWasExact}), and
+ * the cell gets its real biome once the chunk arrives. Cells map to slots of a {@link LongSlotMap}; the cache
+ * starts over when it grows past {@link #MAX_ENTRIES} or the cell size changes.
+ */
+public class CellBiomeCache {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private final LongSlotMap slotByCell = new LongSlotMap(256);
+    private Biome[] biomes = new Biome[256];
+    private int size;
+    private int cellSize;
+    private boolean lastExact;
+    private final WorldSource worldSource = new WorldSource();
+
+    private static long key(int cx, int cz) {
+        return (((long) cx) << 32) ^ (cz & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param reach distance from the player that is known to be loaded (fallback sampling radius)
+     */
+    public Biome get(World world, int cx, int cz, int cellSize, double playerX, double playerZ, double reach) {
+        worldSource.world = world;
+        return get(worldSource, cx, cz, cellSize, playerX, playerZ, reach);
+    }
+
+    public Biome get(Source source, int cx, int cz, int cellSize, double playerX, double playerZ, double reach) {
+        if (cellSize != this.cellSize) {
+            clear();
+            this.cellSize = cellSize;
+        }
+
+        long key = key(cx, cz);
+        int slot = slotByCell.get(key);
+        lastExact = true;
+        if (slot >= 0) return biomes[slot];
+
+        double centerX = cx * (double) cellSize + cellSize * 0.5;
+        double centerZ = cz * (double) cellSize + cellSize * 0.5;
+        int bx = (int) Math.floor(centerX);
+        int bz = (int) Math.floor(centerZ);
+        if (source.isChunkLoaded(bx >> 4, bz >> 4)) {
+            Biome b = source.getBiome(bx, bz);
+            put(key, b);
+            return b;
+        }
+
+        lastExact = false;
+        double dx = centerX - playerX;
+        double dz = centerZ - playerZ;
+        double d = Math.sqrt(dx * dx + dz * dz);
+        double t = (d > reach && d > 0) ? Math.max(0.0, reach) / d : 1.0;
+        return source.getBiome((int) Math.floor(playerX + dx * t), (int) Math.floor(playerZ + dz * t));
+    }
+
+    /**
+     * Whether the last {@link #get} read the cell's own centre, rather than a stand-in sampled towards it.
+     */
+    public boolean lastWasExact() {
+        return lastExact;
+    }
+
+    private void put(long key, Biome biome) {
+        if (size >= MAX_ENTRIES) clear();
+        if (size == biomes.length) biomes = Arrays.copyOf(biomes, size * 2);
+        biomes[size] = biome;
+        slotByCell.put(key, size);
+        size++;
+    }
+
+    public void clear() {
+        slotByCell.clear();
+        Arrays.fill(biomes, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Where the biomes come from: the client world, or a stand-in without a game behind it.
+     */
+    public interface Source {
+        /**
+         * Whether chunk (chunkX, chunkZ) holds real data (not missing, not an empty placeholder).
+         */
+        boolean isChunkLoaded(int chunkX, int chunkZ);
+
+        Biome getBiome(int x, int z);
+    }
+
+    private static final class WorldSource implements Source {
+        private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        private World world;
+
+        @Override
+        public boolean isChunkLoaded(int chunkX, int chunkZ) {
+            Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+            return chunk != null && !chunk.isEmpty();
+        }
+
+        @Override
+        public Biome getBiome(int x, int z) {
+            return world.getBiome(cursor.setPos(x, 64, z));
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.jubitus.birds.client.util;
 
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.world.World;
 
 import java.util.Random;
 
@@ -9,27 +8,98 @@ public class Flock {
     public final long flockId;
     private final Random rng;
 
-    // shared group heading (XZ)
-    private Vec3d groupForward = new Vec3d(0, 0, 1);
+    // shared group heading (XZ); turned in place, so a decision allocates nothing
+    private final MutableVec3d groupForward = new MutableVec3d(0, 0, 1);
     private int ticksToChange = 120;
 
+    // Impostor mode (far away): only the centre is simulated, members keep fixed offsets from it
+    private boolean impostor;
+    private double centerX, centerY, centerZ;
+    private double speed;
+
+    // Member aggregate for the current tick (filled by BirdSimulation before tick())
+    private double sumX, sumY, sumZ, sumSpeed;
+    private int members;
+
     public Flock(long flockId, Vec3d initialForward) {
         this.flockId = flockId;
         this.rng = new Random(flockId);
 
-        this.groupForward = new Vec3d(initialForward.x, 0, initialForward.z).normalize();
-        if (this.groupForward.lengthSquared() < 1e-6) this.groupForward = new Vec3d(0, 0, 1);
+        groupForward.set(initialForward.x, 0, initialForward.z).normalize();
+        if (groupForward.lengthSquared() < 1e-6) groupForward.set(0, 0, 1);
 
         ticksToChange = 80 + rng.nextInt(180);
     }
 
 
-    public void tick(World world) {
+    public void tick(BirdWorld world) {
         if (--ticksToChange <= 0) {
             // group “decision”: shift heading smoothly
             nudgeHeading();
             ticksToChange = 80 + rng.nextInt(220);
         }
+
+        if (impostor) {
+            centerX += groupForward.x * speed;
+            centerZ += groupForward.z * speed;
+        }
+    }
+
+    public void resetMembers() {
+        sumX = sumY = sumZ = sumSpeed = 0.0;
+        members = 0;
+    }
+
+    public void addMember(double x, double y, double z, double horizontalSpeed) {
+        sumX += x;
+        sumY += y;
+        sumZ += z;
+        sumSpeed += horizontalSpeed;
+        members++;
+    }
+
+    public int getMemberCount() {
+        return members;
+    }
+
+    /**
+     * Switches to impostor mode: the centre starts at the members' centroid and moves along the group heading
+     * at their mean horizontal speed. Members must then take their offsets from {@link #getCenterX()} etc.
+     */
+    public void collapse() {
+        if (impostor || members == 0) return;
+        impostor = true;
+        centerX = sumX / members;
+        centerY = sumY / members;
+        centerZ = sumZ / members;
+        speed = sumSpeed / members;
+    }
+
+    public void expand() {
+        impostor = false;
+    }
+
+    public boolean isImpostor() {
+        return impostor;
+    }
+
+    /**
+     * Flock centre: the simulated point in impostor mode, otherwise the centroid gathered this tick.
+     */
+    public double getCenterX() {
+        return impostor ? centerX : (members > 0 ? sumX / members : 0.0);
+    }
+
+    public double getCenterY() {
+        return impostor ? centerY : (members > 0 ? sumY / members : 0.0);
+    }
+
+    public double getCenterZ() {
+        return impostor ? centerZ : (members > 0 ? sumZ / members : 0.0);
+    }
+
+    public double getSpeed() {
+        return speed;
     }
 
     private void nudgeHeading() {
@@ -45,10 +115,13 @@ public class Flock {
         double nx = x * cos - z * sin;
         double nz = x * sin + z * cos;
 
-        groupForward = new Vec3d(nx, 0, nz).normalize();
+        groupForward.set(nx, 0, nz).normalize();
     }
 
-    public Vec3d getGroupForward() {
+    /**
+     * The shared heading itself (changes in {@link #tick}); read it, don't modify it.
+     */
+    public MutableVec3d getGroupForward() {
         return groupForward;
     }
 
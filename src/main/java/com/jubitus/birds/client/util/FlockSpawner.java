@@ -1,39 +1,59 @@
 package com.jubitus.birds.client.util;
 
-import com.jubitus.birds.client.ClientBird;
 import com.jubitus.birds.client.config.BirdConfig;
 import com.jubitus.birds.species.BirdSpecies;
 import com.jubitus.birds.species.BirdSpeciesRegistry;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 
 import java.util.*;
+import java.util.function.LongPredicate;
 
 public class FlockSpawner {
 
-    public static SpawnResult spawnForCells(World world, EntityPlayer player,
-                                            long worldSeed, int dim, long window,
-                                            int cellX, int cellZ, int radiusCells) {
+    /**
+     * Evaluates the cells around (cellX, cellZ) that {@code cells} doesn't have as done for this window and
+     * writes spawn descriptors into {@code out} (cleared first). Each cell picks its species from the biome at
+     * its centre ({@code biomes}). Birds whose id is {@code known} are left out.
+     * Every evaluated cell is recorded in {@code out} with the end of its descriptors, so the caller can mark it
+     * done once all of them are admitted. Cells whose centre isn't loaded yet spawn from a stand-in biome and are
+     * recorded as not settled: they must not be marked done, so they pick again from their real biome later
+     * (birds already admitted from them are {@code known} by then and stay as they are).
+     */
+    public static void spawnForCells(World world, EntityPlayer player,
+                                     long worldSeed, int dim, long window,
+                                     int cellX, int cellZ, int radiusCells,
+                                     SpawnCellCache cells, CellBiomeCache biomes, LongPredicate known,
+                                     SpawnBatch out) {
 
         boolean isDay = world.isDaytime();
-        SpawnResult result = new SpawnResult();
+        int cellSize = BirdConfig.spawnCellSize;
+        // Cell centres beyond the loaded area are sampled this far towards them instead
+        int viewChunks = net.minecraft.client.Minecraft.getMinecraft().gameSettings.renderDistanceChunks;
+        double reach = Math.max(0.0, (viewChunks - 1) * 16.0);
+        out.clear();
+        cells.setRadius(radiusCells);
+        Random rng = out.rng;
 
         for (int dx = -radiusCells; dx <= radiusCells; dx++) {
             for (int dz = -radiusCells; dz <= radiusCells; dz++) {
 
                 int cx = cellX + dx;
                 int cz = cellZ + dz;
+                if (cells.isDone(cx, cz, window)) continue;
 
                 long seed = mixSeed(worldSeed, dim, cx, cz, window);
-                Random rng = new Random(seed);
+                rng.setSeed(seed);
 
-                // Pick default_species for THIS cell
-                Biome biome = world.getBiome(new BlockPos(player.posX, 0, player.posZ));
+                // Pick default_species for THIS cell, from the biome at its centre
+                Biome biome = biomes.get(world, cx, cz, cellSize, player.posX, player.posZ, reach);
+                boolean settled = biomes.lastWasExact();
                 BirdSpecies species = BirdSpeciesRegistry.pickForBiome(biome, rng, isDay);
-                if (species == null) continue;
+                if (species == null) {
+                    out.endCell(cx, cz, settled);
+                    continue;
+                }
 
                 BirdSpecies.BirdSpeciesView view = species.viewForTime(isDay);
 
@@ -42,14 +62,13 @@ public class FlockSpawner {
                 boolean spawnFlock = rng.nextDouble() < chance;
 
                 if (spawnFlock) {
-                    spawnOneFlock(world, player, rng, seed, result, species, view);
+                    spawnOneFlock(world, player, rng, seed, out, species, view, known);
                 } else {
-                    spawnSingles(world, player, rng, seed, result, species, view);
+                    spawnSingles(player, rng, seed, out, species, view, known);
                 }
+                out.endCell(cx, cz, settled);
             }
         }
-
-        return result;
     }
 
     // Same mixer you already use (copy-paste OK)
@@ -72,16 +91,42 @@ public class FlockSpawner {
     }
 
     private static void spawnOneFlock(World world, EntityPlayer player, Random rng, long seed,
-                                      SpawnResult out, BirdSpecies species, BirdSpecies.BirdSpeciesView view) {
+                                      SpawnBatch out, BirdSpecies species, BirdSpecies.BirdSpeciesView view,
+                                      LongPredicate known) {
 
         long flockId = mixSeed(seed, 999, 7, 0, 0);
 
-        // One shared spawn point for the whole flock (uses default_species day/night altitude+speed)
-        FlockSpawn base = createFlockSpawn(world, player, rng, view);
+        // One shared spawn point for the whole flock (uses default_species day/night altitude+speed).
+        // Its altitude stays relative to the ground until a member is materialized.
+        int viewChunks = net.minecraft.client.Minecraft.getMinecraft().gameSettings.renderDistanceChunks;
+        double viewBorder = viewChunks * 16.0;
+
+        double spawnDist = viewBorder + BirdConfig.spawnBorderBuffer + rng.nextDouble() * 64.0;
+        double angle = rng.nextDouble() * Math.PI * 2.0;
+
+        double sx = player.posX + Math.cos(angle) * spawnDist;
+        double sz = player.posZ + Math.sin(angle) * spawnDist;
+        double above = BirdSteering.lerp(view.minAltitudeAboveGround(), view.maxAltitudeAboveGround(), rng.nextDouble());
+
+        // Outward is never ~0 here (spawnDist >= view border)
+        double ox = sx - player.posX;
+        double oz = sz - player.posZ;
+        double ol = Math.sqrt(ox * ox + oz * oz);
+        ox /= ol;
+        oz /= ol;
+
+        // inward (-outward) plus a sideways push along (-outward.z, outward.x)
+        double sideAmt = (rng.nextDouble() - 0.5) * 1.2;
+        double dirX = -ox - oz * sideAmt;
+        double dirZ = -oz + ox * sideAmt;
+        double dl = Math.sqrt(dirX * dirX + dirZ * dirZ);
+        dirX /= dl;
+        dirZ /= dl;
+
+        double baseSpeed = BirdSteering.lerp(view.minSpeed(), view.maxSpeed(), rng.nextDouble());
 
         // Flock uses the base travel direction
-        Flock flock = new Flock(flockId, base.baseDir);
-        out.flocks.put(flockId, flock);
+        int flock = out.addFlock(flockId, sx, sz, dirX, dirZ);
 
         int size = chooseFlockSize(world, rng, species); // you can make this view-aware later
 
@@ -93,69 +138,38 @@ public class FlockSpawner {
                     : (6.0 + rng.nextDouble() * 18.0);
 
             double a = rng.nextDouble() * Math.PI * 2.0;
-            double ox = Math.cos(a) * spread;
-            double oz = Math.sin(a) * spread;
-            double oy = (rng.nextDouble() - 0.5) * 3.0;
-
-            Vec3d pos = base.centerPos.add(ox, oy, oz);
+            double mx = Math.cos(a) * spread;
+            double mz = Math.sin(a) * spread;
+            double my = (rng.nextDouble() - 0.5) * 3.0;
 
-            Vec3d jitter = new Vec3d((rng.nextDouble() - 0.5) * 0.15, 0, (rng.nextDouble() - 0.5) * 0.15);
-            Vec3d dir = base.baseDir.add(jitter).normalize();
+            double jx = (rng.nextDouble() - 0.5) * 0.15;
+            double jz = (rng.nextDouble() - 0.5) * 0.15;
 
-            double speed = base.baseSpeed * (0.9 + rng.nextDouble() * 0.2);
+            double speed = baseSpeed * (0.9 + rng.nextDouble() * 0.2);
 
-            ClientBird b = new ClientBird(world, species, birdId, pos, dir, speed);
-            b.flockId = flockId;
+            // Known birds still take their draws, so the others get the same values on every pass
+            if (known.test(birdId)) continue;
 
-            out.birds.add(b);
+            // direction is normalized when the bird is built
+            out.add(birdId, species.registryIndex, flockId, flock,
+                    sx + mx, above + my, sz + mz,
+                    dirX + jx, 0, dirZ + jz, speed, true);
         }
     }
 
-    private static void spawnSingles(World world, EntityPlayer player, Random rng, long seed,
-                                     SpawnResult out, BirdSpecies species, BirdSpecies.BirdSpeciesView view) {
+    private static void spawnSingles(EntityPlayer player, Random rng, long seed,
+                                     SpawnBatch out, BirdSpecies species, BirdSpecies.BirdSpeciesView view,
+                                     LongPredicate known) {
 
         int max = Math.max(0, view.birdsPerCellMax());
         int count = rng.nextInt(max + 1);
 
         for (int i = 0; i < count; i++) {
             long birdId = mixSeed(seed, i, 1, 0, 0);
-            ClientBird b = spawnBird(world, player, rng, birdId, 0L, null, species, view);
-            out.birds.add(b);
+            spawnSingle(player, rng, birdId, out, species, view, known);
         }
     }
 
-    private static FlockSpawn createFlockSpawn(World world, EntityPlayer player, Random rng, BirdSpecies.BirdSpeciesView view) {
-        FlockSpawn s = new FlockSpawn();
-
-        int viewChunks = net.minecraft.client.Minecraft.getMinecraft().gameSettings.renderDistanceChunks;
-        double viewBorder = viewChunks * 16.0;
-
-        double spawnDist = viewBorder + BirdConfig.spawnBorderBuffer + rng.nextDouble() * 64.0;
-        double angle = rng.nextDouble() * Math.PI * 2.0;
-
-        double sx = player.posX + Math.cos(angle) * spawnDist;
-        double sz = player.posZ + Math.sin(angle) * spawnDist;
-
-        double ground = world.getHeight(new BlockPos(sx, 0, sz)).getY();
-        double above = BirdSteering.lerp(view.minAltitudeAboveGround(), view.maxAltitudeAboveGround(), rng.nextDouble());
-        double sy = ground + above;
-
-        s.centerPos = new Vec3d(sx, sy, sz);
-
-        Vec3d outward = new Vec3d(sx - player.posX, 0, sz - player.posZ);
-        if (outward.lengthSquared() < 1e-6) outward = new Vec3d(0, 0, 1);
-        outward = outward.normalize();
-
-        Vec3d inward = outward.scale(-1.0);
-        Vec3d side = new Vec3d(-outward.z, 0, outward.x);
-
-        double sideAmt = (rng.nextDouble() - 0.5) * 1.2;
-        s.baseDir = inward.add(side.scale(sideAmt)).normalize();
-
-        s.baseSpeed = BirdSteering.lerp(view.minSpeed(), view.maxSpeed(), rng.nextDouble());
-        return s;
-    }
-
     private static int chooseFlockSize(World world, Random rng, BirdSpecies species) {
         boolean day = world.isDaytime();
         double bigChance = day ? species.bigFlockChanceDay : species.bigFlockChanceNight;
@@ -171,9 +185,13 @@ public class FlockSpawner {
         }
     }
 
-    private static ClientBird spawnBird(World world, EntityPlayer player, Random rng,
-                                        long birdId, long flockId, Flock flock,
-                                        BirdSpecies species, BirdSpecies.BirdSpeciesView view) {
+    /**
+     * One single at the spawn ring; its altitude stays relative to the ground until it is materialized.
+     * Left out if {@code known}, after taking its draws from {@code rng} like any other.
+     */
+    private static void spawnSingle(EntityPlayer player, Random rng, long birdId,
+                                    SpawnBatch out, BirdSpecies species, BirdSpecies.BirdSpeciesView view,
+                                    LongPredicate known) {
 
         int viewChunks = net.minecraft.client.Minecraft.getMinecraft().gameSettings.renderDistanceChunks;
         double viewBorder = viewChunks * 16.0;
@@ -183,55 +201,21 @@ public class FlockSpawner {
         double sx = player.posX + Math.cos(angle) * spawnDist;
         double sz = player.posZ + Math.sin(angle) * spawnDist;
 
-        if (flockId != 0L) {
-            double spread = 14.0 + rng.nextDouble() * 22.0;
-            double a2 = rng.nextDouble() * Math.PI * 2.0;
-            sx += Math.cos(a2) * spread;
-            sz += Math.sin(a2) * spread;
-        }
-
-        BlockPos bp = new BlockPos(sx, 0, sz);
-        double ground = world.getHeight(bp).getY();
-
         double above = BirdSteering.lerp(view.minAltitudeAboveGround(), view.maxAltitudeAboveGround(), rng.nextDouble());
-        double sy = ground + above;
 
-        Vec3d pos = new Vec3d(sx, sy, sz);
-
-        Vec3d dir;
-        if (flock != null) {
-            Vec3d gf = flock.getGroupForward();
-            Vec3d jitter = new Vec3d((rng.nextDouble() - 0.5) * 0.25, 0, (rng.nextDouble() - 0.5) * 0.25);
-            dir = gf.add(jitter).normalize();
-        } else {
-            Vec3d outward = new Vec3d(sx - player.posX, 0, sz - player.posZ);
-            if (outward.lengthSquared() < 1e-6) outward = new Vec3d(0, 0, 1);
-            outward = outward.normalize();
-
-            Vec3d inward = outward.scale(-1.0);
-            Vec3d side = new Vec3d(-outward.z, 0, outward.x);
-
-            double sideAmt = (rng.nextDouble() - 0.5) * 1.2;
-            dir = inward.add(side.scale(sideAmt)).normalize();
-        }
+        // Outward is never ~0 here (spawnDist >= view border)
+        double ox = sx - player.posX;
+        double oz = sz - player.posZ;
+        double ol = Math.sqrt(ox * ox + oz * oz);
+        ox /= ol;
+        oz /= ol;
 
+        // inward plus a sideways push; normalized when the bird is built
+        double sideAmt = (rng.nextDouble() - 0.5) * 1.2;
         double speed = BirdSteering.lerp(view.minSpeed(), view.maxSpeed(), rng.nextDouble());
-        ClientBird b = new ClientBird(world, species, birdId, pos, dir, speed);
+        if (known.test(birdId)) return;
 
-        b.flockId = flockId;
-        return b;
+        out.add(birdId, species.registryIndex, 0L, -1, sx, above, sz,
+                -ox - oz * sideAmt, 0, -oz + ox * sideAmt, speed, true);
     }
-
-    public static class SpawnResult {
-        public final List<ClientBird> birds = new ArrayList<>();
-        public final Map<Long, Flock> flocks = new HashMap<>();
-    }
-
-    private static class FlockSpawn {
-        Vec3d centerPos;
-        Vec3d baseDir;
-        double baseSpeed;
-    }
-
-
 }
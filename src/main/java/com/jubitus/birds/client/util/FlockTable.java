@@ -0,0 +1,96 @@
+package com.jubitus.birds.client.util;
+
+import com.jubitus.birds.client.BirdStore;
+
+import java.util.Arrays;
+
+/**
+ * The live flocks by id: a dense array (iterate with {@link #size} / {@link #at}) plus a {@link LongSlotMap}
+ * from flock id to index, so the per-bird lookups of a simulation step neither box ids nor create iterators.
+ * Removal moves the last flock into the hole, like {@link BirdStore}.
+ */
+public class FlockTable {
+
+    private final LongSlotMap indexById = new LongSlotMap(64);
+    private Flock[] flocks = new Flock[16];
+    private boolean[] used = new boolean[16];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Flock at(int i) {
+        return flocks[i];
+    }
+
+    /**
+     * @return the flock with id {@code flockId}, or null
+     */
+    public Flock get(long flockId) {
+        int i = indexById.get(flockId);
+        return (i >= 0) ? flocks[i] : null;
+    }
+
+    public boolean contains(long flockId) {
+        return indexById.containsKey(flockId);
+    }
+
+    /**
+     * Adds {@code flock}, replacing any flock with the same id.
+     */
+    public void put(Flock flock) {
+        int i = indexById.get(flock.flockId);
+        if (i >= 0) {
+            flocks[i] = flock;
+            return;
+        }
+        if (size == flocks.length) {
+            flocks = Arrays.copyOf(flocks, size * 2);
+            used = Arrays.copyOf(used, size * 2);
+        }
+        flocks[size] = flock;
+        indexById.put(flock.flockId, size);
+        size++;
+    }
+
+    /**
+     * Drops the flocks no bird in {@code store} belongs to any more.
+     */
+    public void removeUnused(BirdStore store) {
+        if (size == 0) return;
+        Arrays.fill(used, 0, size, false);
+        for (int k = 0, n = store.size(); k < n; k++) {
+            long id = store.get(k).flockId;
+            if (id == 0L) continue;
+            int i = indexById.get(id);
+            if (i >= 0) used[i] = true;
+        }
+
+        int i = 0;
+        while (i < size) {
+            if (used[i]) {
+                i++;
+                continue;
+            }
+            indexById.remove(flocks[i].flockId);
+            int last = --size;
+            if (i != last) {
+                flocks[i] = flocks[last];
+                used[i] = used[last];
+                indexById.put(flocks[i].flockId, i);
+            }
+            flocks[last] = null;
+        }
+    }
+
+    public void clear() {
+        indexById.clear();
+        Arrays.fill(flocks, 0, size, null);
+        size = 0;
+    }
+}
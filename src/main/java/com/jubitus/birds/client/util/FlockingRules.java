@@ -1,65 +1,103 @@
 package com.jubitus.birds.client.util;
 
 import com.jubitus.birds.client.ClientBird;
-import net.minecraft.util.math.Vec3d;
-
-import java.util.List;
 
 public class FlockingRules {
 
-    public static Vec3d boidsSteer(ClientBird self, List<ClientBird> candidates, Params p) {
-        Vec3d cohesion = Vec3d.ZERO;
-        Vec3d alignment = Vec3d.ZERO;
-        Vec3d separation = Vec3d.ZERO;
+    /**
+     * Writes the boids steering force (cohesion/alignment/separation) into {@code out}.
+     * Allocation-free: {@code query} visits only flockmates actually within {@link Params#neighborRadius}.
+     * Singles ({@code flockId == 0}) have no flockmates and get a zero force.
+     */
+    public static MutableVec3d boidsSteer(ClientBird self, SpatialHash grid, SpatialHash.Query query, Params p, MutableVec3d out) {
+        double selfX = self.getX();
+        double selfY = self.getY();
+        double selfZ = self.getZ();
+        long selfId = self.getId();
+        long selfFlock = self.flockId;
+        if (selfFlock == 0L) return out.set(0, 0, 0);
+
+        double cohX = 0, cohY = 0, cohZ = 0;
+        double aliX = 0, aliY = 0, aliZ = 0;
+        double sepX = 0, sepY = 0, sepZ = 0;
+
+        double separation2 = p.separationRadius * p.separationRadius;
 
         int count = 0;
 
-        for (ClientBird other : candidates) {
-            if (other == self) continue;
-            if (other.flockId != self.flockId) continue; // only flock with same flockId
-
-            double d2 = self.pos.squareDistanceTo(other.pos);
-            if (d2 > p.neighborRadius * p.neighborRadius) continue;
+        query.begin(grid, selfFlock, selfX, selfY, selfZ, p.neighborRadius, p.neighborYBand);
+        for (int e = query.next(); e >= 0; e = query.next()) {
+            if (grid.id[e] == selfId) continue;
 
             count++;
 
             // cohesion: toward average position
-            cohesion = cohesion.add(other.pos);
+            cohX += grid.x[e];
+            cohY += grid.y[e];
+            cohZ += grid.z[e];
 
             // alignment: toward average velocity
-            alignment = alignment.add(other.vel);
-
-            // separation: avoid close neighbors
-            if (d2 < p.separationRadius * p.separationRadius && d2 > 1e-6) {
-                Vec3d away = self.pos.subtract(other.pos).normalize().scale(1.0 / Math.sqrt(d2));
-                separation = separation.add(away);
+            aliX += grid.velX[e];
+            aliY += grid.velY[e];
+            aliZ += grid.velZ[e];
+
+            // separation: avoid close neighbors (unit away-vector scaled by 1/dist == d/d2)
+            double d2 = query.dist2;
+            if (d2 < separation2 && d2 > 1e-6) {
+                sepX -= query.dx / d2;
+                sepY -= query.dy / d2;
+                sepZ -= query.dz / d2;
             }
         }
 
-        if (count == 0) return Vec3d.ZERO;
+        if (count == 0) return out.set(0, 0, 0);
 
-        cohesion = cohesion.scale(1.0 / count).subtract(self.pos);
-        if (cohesion.lengthSquared() > 1e-8) cohesion = cohesion.normalize();
+        cohX = cohX / count - selfX;
+        cohY = cohY / count - selfY;
+        cohZ = cohZ / count - selfZ;
+
+        double fx = 0, fy = 0, fz = 0;
+
+        double l2 = cohX * cohX + cohY * cohY + cohZ * cohZ;
+        if (l2 > 1e-8) {
+            double s = p.weightCohesion / Math.sqrt(l2);
+            fx += cohX * s;
+            fy += cohY * s;
+            fz += cohZ * s;
+        } else {
+            fx += cohX * p.weightCohesion;
+            fy += cohY * p.weightCohesion;
+            fz += cohZ * p.weightCohesion;
+        }
 
-        if (alignment.lengthSquared() > 1e-8) alignment = alignment.normalize();
+        l2 = aliX * aliX + aliY * aliY + aliZ * aliZ;
+        double sa = (l2 > 1e-8) ? p.weightAlignment / Math.sqrt(l2) : p.weightAlignment;
+        fx += aliX * sa;
+        fy += aliY * sa;
+        fz += aliZ * sa;
 
-        if (separation.lengthSquared() > 1e-8) separation = separation.normalize();
+        l2 = sepX * sepX + sepY * sepY + sepZ * sepZ;
+        double ss = (l2 > 1e-8) ? p.weightSeparation / Math.sqrt(l2) : p.weightSeparation;
+        fx += sepX * ss;
+        fy += sepY * ss;
+        fz += sepZ * ss;
 
-        Vec3d force =
-                cohesion.scale(p.weightCohesion)
-                        .add(alignment.scale(p.weightAlignment))
-                        .add(separation.scale(p.weightSeparation));
+        out.set(fx, fy, fz);
 
         // cap steering magnitude
-        if (force.lengthSquared() > p.maxForce * p.maxForce) {
-            force = force.normalize().scale(p.maxForce);
+        if (out.lengthSquared() > p.maxForce * p.maxForce) {
+            out.normalize().scale(p.maxForce);
         }
-        return force;
+        return out;
     }
 
     public static class Params {
         public double neighborRadius = 48.0;
         public double separationRadius = 6.0;
+        /**
+         * Optional vertical pre-filter for neighbour queries (blocks). 0 = sphere only.
+         */
+        public double neighborYBand = 0.0;
 
         public double weightCohesion = 1.35;
         public double weightAlignment = 1.05;
@@ -0,0 +1,103 @@
+package com.jubitus.birds.client.util;
+
+import com.jubitus.birds.client.BirdProfiler;
+import com.jubitus.birds.client.BirdStore;
+import com.jubitus.birds.client.ClientBird;
+import com.jubitus.birds.client.sound.BirdCallSound;
+import com.jubitus.birds.client.sound.BirdCallType;
+import com.jubitus.birds.client.sound.BirdSoundSystem;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * {@link BirdWorld} backed by the client world: heights through the {@link TerrainHeightCache}, blocks and
+ * time from the world itself, calls played immediately. Client thread (or workers while it waits).
+ */
+public class LiveBirdWorld implements BirdWorld {
+
+    private final TerrainHeightCache terrain;
+    private World world;
+
+    public LiveBirdWorld(TerrainHeightCache terrain) {
+        this.terrain = terrain;
+    }
+
+    public void setWorld(World world) {
+        this.world = world;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    @Override
+    public long getTotalWorldTime() {
+        return world.getTotalWorldTime();
+    }
+
+    @Override
+    public boolean isDaytime() {
+        return world.isDaytime();
+    }
+
+    @Override
+    public int getHeight(int x, int z) {
+        BirdProfiler.count(BirdProfiler.Counter.HEIGHT_LOOKUPS);
+        return terrain.height(world, x, z);
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z, BlockPos.MutableBlockPos cursor) {
+        if (y < 0 || y >= 256) return false;
+        cursor.setPos(x, y, z);
+        IBlockState st = world.getBlockState(cursor);
+        return st.getCollisionBoundingBox(world, cursor) != Block.NULL_AABB;
+    }
+
+    /**
+     * The client thread blocks in the parallel phase, so the world isn't mutated while workers read it; but the
+     * height cache can't be filled concurrently: warm it around every bird here, workers only read it.
+     */
+    @Override
+    public void beginParallelRead(BirdStore store) {
+        for (int i = 0, n = store.size(); i < n; i++) {
+            terrain.warm(world, store.x[i], store.z[i]);
+        }
+        terrain.setReadOnly(true);
+    }
+
+    @Override
+    public void endParallelRead() {
+        terrain.setReadOnly(false);
+    }
+
+    @Override
+    public double getViewerX() {
+        EntityPlayer p = Minecraft.getMinecraft().player;
+        return (p != null) ? p.posX : Double.NaN;
+    }
+
+    @Override
+    public double getViewerY() {
+        EntityPlayer p = Minecraft.getMinecraft().player;
+        return (p != null) ? p.posY + p.getEyeHeight() : Double.NaN;
+    }
+
+    @Override
+    public double getViewerZ() {
+        EntityPlayer p = Minecraft.getMinecraft().player;
+        return (p != null) ? p.posZ : Double.NaN;
+    }
+
+    @Override
+    public void playCall(ClientBird bird, BirdCallType type, SoundEvent event, float volume, float pitch,
+                         float maxDist, float fadeStart, float fadePower) {
+        BirdCallSound sound = new BirdCallSound(bird, world, event, volume, pitch, maxDist, fadeStart, fadePower);
+        BirdSoundSystem.playCallIfAllowed(bird.getId(), bird.flockId, type, sound);
+    }
+}
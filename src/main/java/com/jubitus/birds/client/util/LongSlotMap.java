@@ -0,0 +1,125 @@
+package com.jubitus.birds.client.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long -> int map (linear probing, no boxing).
+ * Used to find a bird's dense slot from its 64-bit id.
+ * <p>
+ * Values are non-negative slot indices; {@link #get} returns -1 when the key is missing.
+ */
+public class LongSlotMap {
+
+    private static final int EMPTY = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongSlotMap() {
+        this(64);
+    }
+
+    public LongSlotMap(int expected) {
+        int cap = 16;
+        while (cap < expected * 2) cap <<= 1;
+        alloc(cap);
+    }
+
+    private void alloc(int cap) {
+        keys = new long[cap];
+        values = new int[cap];
+        Arrays.fill(values, EMPTY);
+        mask = cap - 1;
+        size = 0;
+    }
+
+    private static int mix(long k) {
+        k ^= (k >>> 33);
+        k *= 0xff51afd7ed558ccdL;
+        k ^= (k >>> 33);
+        return (int) k;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(long key) {
+        int i = mix(key) & mask;
+        while (true) {
+            int v = values[i];
+            if (v == EMPTY) return -1;
+            if (keys[i] == key) return v;
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) >= 0;
+    }
+
+    public void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) grow();
+
+        int i = mix(key) & mask;
+        while (true) {
+            if (values[i] == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void remove(long key) {
+        int i = mix(key) & mask;
+        while (true) {
+            if (values[i] == EMPTY) return;
+            if (keys[i] == key) break;
+            i = (i + 1) & mask;
+        }
+
+        // Backward-shift deletion: keeps probe chains intact without tombstones
+        values[i] = EMPTY;
+        size--;
+
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == EMPTY) return;
+
+            int home = mix(keys[j]) & mask;
+            // Can the entry at j move into the hole at i?
+            boolean movable = (i <= j) ? (home <= i || home > j) : (home <= i && home > j);
+            if (movable) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                values[j] = EMPTY;
+                i = j;
+            }
+        }
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(values, EMPTY);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        alloc(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.jubitus.birds.client.util;
+
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Mutable 3D vector for the per-tick flight math.
+ * Every operation works in place and returns {@code this}, so hot loops don't create garbage.
+ * <p>
+ * {@link #normalize()} follows {@link Vec3d#normalize()}: vectors shorter than 1e-4 become zero.
+ */
+public class MutableVec3d {
+    public double x;
+    public double y;
+    public double z;
+
+    public MutableVec3d() {
+    }
+
+    public MutableVec3d(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public MutableVec3d set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    public MutableVec3d set(MutableVec3d o) {
+        return set(o.x, o.y, o.z);
+    }
+
+    public MutableVec3d set(Vec3d o) {
+        return set(o.x, o.y, o.z);
+    }
+
+    public MutableVec3d add(double x, double y, double z) {
+        this.x += x;
+        this.y += y;
+        this.z += z;
+        return this;
+    }
+
+    public MutableVec3d add(MutableVec3d o) {
+        return add(o.x, o.y, o.z);
+    }
+
+    public MutableVec3d scale(double f) {
+        this.x *= f;
+        this.y *= f;
+        this.z *= f;
+        return this;
+    }
+
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    public MutableVec3d normalize() {
+        double len = length();
+        if (len < 1.0E-4) return set(0, 0, 0);
+        return set(x / len, y / len, z / len);
+    }
+
+    public Vec3d toVec3d() {
+        return new Vec3d(x, y, z);
+    }
+}
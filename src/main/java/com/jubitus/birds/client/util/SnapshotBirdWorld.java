@@ -0,0 +1,494 @@
+package com.jubitus.birds.client.util;
+
+import com.jubitus.birds.client.BirdProfiler;
+import com.jubitus.birds.client.BirdStore;
+import com.jubitus.birds.client.ClientBird;
+import com.jubitus.birds.client.sound.BirdCallSound;
+import com.jubitus.birds.client.sound.BirdCallType;
+import com.jubitus.birds.client.sound.BirdSoundSystem;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe {@link BirdWorld} for the asynchronous simulation.
+ * <p>
+ * Holds copies of what the birds look at: chunk height columns and, for obstacle rays, one bit per block
+ * ("has a collision box") per 16x16x16 section. Time, day/night and the viewer position are captured at the
+ * sync point. The simulation thread only reads; a miss answers conservatively from what is known (the highest
+ * neighbouring copied column, else the ground under the viewer; "solid below that height" for blocks) and
+ * logs the chunk/section, which the client thread copies at the next {@link #sync}. A chunk that changes keeps
+ * its stale copy until the next sync replaces it. Calls go into a queue and are played by {@link #drainCalls}.
+ * <p>
+ * The copies are double-buffered: the simulation reads the published generation while {@link #sync} writes the
+ * other one (first catching it up with what the last sync wrote), then publishes it. Both are keyed by
+ * {@link LongSlotMap} into pooled arrays and the miss logs are fixed arrays, so neither the sync nor a lookup
+ * allocates once the pools have grown, and neither side ever blocks the other.
+ */
+public class SnapshotBirdWorld implements BirdWorld {
+
+    // Sections built per sync at most (each one is 4096 block lookups on the client thread)
+    private static final int MAX_SECTIONS_PER_SYNC = 32;
+    // Copies are never evicted one by one; start over past these sizes
+    private static final int MAX_COLUMNS = 4096;
+    private static final int MAX_SECTIONS = 4096;
+    // Ahead of each bird that are prefetched: the obstacle look-ahead and the middle of the glide waypoint range
+    private static final double[] PREFETCH_AHEAD = {17.0, 34.0, 150.0};
+
+    private final Copies copiesA = new Copies();
+    private final Copies copiesB = new Copies();
+    // Generation the simulation reads; the other one belongs to the client thread
+    private volatile Copies front = copiesA;
+
+    // Written into the front generation by the last sync (client thread), replayed into the other one next sync
+    private long[] columnLog = new long[64];
+    private int columnLogSize;
+    private long[] sectionLog = new long[64];
+    private int sectionLogSize;
+    private boolean clearLogged;
+
+    // What the last step missed (simulation threads)
+    private final MissLog missingColumns = new MissLog(1024);
+    private final MissLog missingSections = new MissLog(1024);
+
+    // Sections waiting to be built, in order (client thread; the build is budgeted per sync)
+    private final LongSlotMap queuedSections = new LongSlotMap(256);
+    private long[] sectionQueue = new long[64];
+    private int sectionQueueHead, sectionQueueTail;
+
+    // Chunks changed since their copy was made (column key); re-copied at the next sync (client thread)
+    private final LongSlotMap staleSet = new LongSlotMap(64);
+    private long[] staleChunks = new long[64];
+    private int staleCount;
+
+    private final Queue<CallRequest> calls = new ConcurrentLinkedQueue<>();
+    private final BlockPos.MutableBlockPos syncCursor = new BlockPos.MutableBlockPos();
+
+    private volatile long totalWorldTime;
+    private volatile boolean daytime;
+    private volatile double viewerX, viewerY, viewerZ;
+    // Height answered for a column with no copy and no copied neighbour (ground under the viewer)
+    private volatile int missHeight;
+
+    private static long columnKey(int cx, int cz) {
+        return (((long) cx) << 32) ^ (cz & 0xFFFFFFFFL);
+    }
+
+    // 28 bits chunk X | 28 bits chunk Z | 4 bits section Y
+    private static long sectionKey(int cx, int sy, int cz) {
+        return (((long) cx) << 36) | ((cz & 0xFFFFFFFL) << 4) | (sy & 15);
+    }
+
+    private static long[] append(long[] list, int size, long value) {
+        if (size == list.length) list = Arrays.copyOf(list, size * 2);
+        list[size] = value;
+        return list;
+    }
+
+    // ---- client thread ----
+
+    /**
+     * Sync point (client thread, simulation idle): captures time and viewer, re-copies changed chunks, copies the
+     * chunks around every bird, along its look-ahead and at its waypoint that aren't known yet, then whatever the
+     * last step asked for; and publishes the result.
+     */
+    public void sync(World world, TerrainHeightCache terrain, double viewerX, double viewerY, double viewerZ,
+                     BirdStore store) {
+        totalWorldTime = world.getTotalWorldTime();
+        daytime = world.isDaytime();
+        this.viewerX = viewerX;
+        this.viewerY = viewerY;
+        this.viewerZ = viewerZ;
+        missHeight = terrain.height(world, (int) Math.floor(viewerX), (int) Math.floor(viewerZ));
+
+        Copies back = catchUp();
+        if (back.columnSlots.size() > MAX_COLUMNS || back.sectionSlots.size() > MAX_SECTIONS) {
+            back.clear();
+            clearLogged = true;
+        }
+
+        refreshStale(world, terrain, back);
+
+        for (int k = 0, n = store.size(); k < n; k++) {
+            double x = store.x[k];
+            double z = store.z[k];
+            int cx = ((int) Math.floor(x)) >> 4;
+            int cz = ((int) Math.floor(z)) >> 4;
+            for (int ox = -1; ox <= 1; ox++) {
+                for (int oz = -1; oz <= 1; oz++) {
+                    copyColumn(world, terrain, back, cx + ox, cz + oz, false);
+                }
+            }
+            for (double d : PREFETCH_AHEAD) {
+                copyColumnAt(world, terrain, back, x + store.fwdX[k] * d, z + store.fwdZ[k] * d);
+            }
+            ClientBird b = store.get(k);
+            copyColumnAt(world, terrain, back, b.getWaypointX(), b.getWaypointZ());
+        }
+
+        for (int k = 0, n = missingColumns.size(); k < n; k++) {
+            long key = missingColumns.get(k);
+            copyColumn(world, terrain, back, (int) (key >> 32), (int) key, false);
+        }
+        missingColumns.reset();
+
+        for (int k = 0, n = missingSections.size(); k < n; k++) {
+            long key = missingSections.get(k);
+            if (back.section(key) == null) queueSection(key);
+        }
+        missingSections.reset();
+        for (int n = 0; n < MAX_SECTIONS_PER_SYNC && sectionQueueHead < sectionQueueTail; n++) {
+            long key = sectionQueue[sectionQueueHead++];
+            queuedSections.remove(key);
+            buildSection(world, back, key);
+        }
+
+        front = back;
+    }
+
+    /**
+     * The generation the simulation isn't reading, brought up to date with the published one by replaying what
+     * the last sync wrote into it.
+     */
+    private Copies catchUp() {
+        Copies pub = front;
+        Copies back = (pub == copiesA) ? copiesB : copiesA;
+        if (clearLogged) back.clear();
+        for (int k = 0; k < columnLogSize; k++) {
+            long key = columnLog[k];
+            int[] src = pub.column(key);
+            if (src != null) System.arraycopy(src, 0, back.columnForWrite(key), 0, src.length);
+        }
+        for (int k = 0; k < sectionLogSize; k++) {
+            long key = sectionLog[k];
+            long[] src = pub.section(key);
+            if (src != null) System.arraycopy(src, 0, back.sectionForWrite(key), 0, src.length);
+        }
+        columnLogSize = 0;
+        sectionLogSize = 0;
+        clearLogged = false;
+        return back;
+    }
+
+    /**
+     * Replaces the copies of changed chunks: the column right away, known sections through the (budgeted) section
+     * queue. Until then readers keep seeing the previous copy.
+     */
+    private void refreshStale(World world, TerrainHeightCache terrain, Copies back) {
+        for (int k = 0; k < staleCount; k++) {
+            long key = staleChunks[k];
+            int cx = (int) (key >> 32);
+            int cz = (int) key;
+            copyColumn(world, terrain, back, cx, cz, true);
+            for (int sy = 0; sy < 16; sy++) {
+                long sk = sectionKey(cx, sy, cz);
+                if (back.section(sk) != null) queueSection(sk);
+            }
+        }
+        staleCount = 0;
+        staleSet.clear();
+    }
+
+    private void queueSection(long key) {
+        if (queuedSections.containsKey(key)) return;
+        if (sectionQueueTail == sectionQueue.length && sectionQueueHead > 0) {
+            System.arraycopy(sectionQueue, sectionQueueHead, sectionQueue, 0, sectionQueueTail - sectionQueueHead);
+            sectionQueueTail -= sectionQueueHead;
+            sectionQueueHead = 0;
+        }
+        sectionQueue = append(sectionQueue, sectionQueueTail++, key);
+        queuedSections.put(key, 0);
+    }
+
+    private void copyColumnAt(World world, TerrainHeightCache terrain, Copies back, double x, double z) {
+        copyColumn(world, terrain, back, ((int) Math.floor(x)) >> 4, ((int) Math.floor(z)) >> 4, false);
+    }
+
+    /**
+     * @param refresh re-copy a column that is already known (only known ones are refreshed)
+     */
+    private void copyColumn(World world, TerrainHeightCache terrain, Copies back, int cx, int cz, boolean refresh) {
+        long key = columnKey(cx, cz);
+        if ((back.column(key) != null) != refresh) return;
+        terrain.copyChunk(world, cx, cz, back.columnForWrite(key));
+        columnLog = append(columnLog, columnLogSize++, key);
+    }
+
+    private void buildSection(World world, Copies back, long key) {
+        int cx = (int) (key >> 36);
+        int cz = (int) ((key << 32) >> 36);
+        int sy = (int) (key & 15);
+        long[] bits = back.sectionForWrite(key);
+        Arrays.fill(bits, 0L);
+
+        Chunk chunk = world.getChunkProvider().getLoadedChunk(cx, cz);
+        ExtendedBlockStorage storage = (chunk != null) ? chunk.getBlockStorageArray()[sy] : null;
+        if (storage != null && !storage.isEmpty()) {
+            int bx = cx << 4, by = sy << 4, bz = cz << 4;
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        IBlockState st = storage.get(x, y, z);
+                        syncCursor.setPos(bx + x, by + y, bz + z);
+                        if (st.getCollisionBoundingBox(world, syncCursor) != Block.NULL_AABB) {
+                            int i = (y << 8) | (z << 4) | x;
+                            bits[i >>> 6] |= 1L << (i & 63);
+                        }
+                    }
+                }
+            }
+        }
+        sectionLog = append(sectionLog, sectionLogSize++, key);
+    }
+
+    /**
+     * Marks the copies of chunk (cx, cz) for re-copy at the next sync (client thread; wired to the height cache's
+     * invalidation). The copies stay readable meanwhile, so a step in flight never sees the chunk vanish.
+     */
+    public void invalidateChunk(int cx, int cz) {
+        long key = columnKey(cx, cz);
+        if (staleSet.containsKey(key)) return;
+        staleSet.put(key, 0);
+        staleChunks = append(staleChunks, staleCount++, key);
+    }
+
+    /**
+     * Drops every copy (client thread, simulation idle).
+     */
+    public void clear() {
+        copiesA.clear();
+        copiesB.clear();
+        columnLogSize = 0;
+        sectionLogSize = 0;
+        clearLogged = false;
+        missingColumns.reset();
+        missingSections.reset();
+        queuedSections.clear();
+        sectionQueueHead = sectionQueueTail = 0;
+        staleSet.clear();
+        staleCount = 0;
+        calls.clear();
+    }
+
+    /**
+     * Plays the calls the last step asked for (client thread). Birds removed since are skipped.
+     */
+    public void drainCalls(World world) {
+        CallRequest c;
+        while ((c = calls.poll()) != null) {
+            if (!c.bird.isAlive()) continue;
+            BirdCallSound sound = new BirdCallSound(c.bird, world, c.event, c.volume, c.pitch,
+                    c.maxDist, c.fadeStart, c.fadePower);
+            BirdSoundSystem.playCallIfAllowed(c.bird.getId(), c.bird.flockId, c.type, sound);
+        }
+    }
+
+    // ---- simulation thread ----
+
+    @Override
+    public long getTotalWorldTime() {
+        return totalWorldTime;
+    }
+
+    @Override
+    public boolean isDaytime() {
+        return daytime;
+    }
+
+    @Override
+    public int getHeight(int x, int z) {
+        BirdProfiler.count(BirdProfiler.Counter.HEIGHT_LOOKUPS);
+        Copies c = front;
+        long key = columnKey(x >> 4, z >> 4);
+        int[] heights = c.column(key);
+        if (heights == null) {
+            missingColumns.add(key);
+            return missingHeight(c, x, z);
+        }
+        return heights[((z & 15) << 4) | (x & 15)];
+    }
+
+    /**
+     * Conservative stand-in for a column without a copy: the highest of the nearest columns in the copied
+     * neighbouring chunks, or the ground under the viewer if none is copied. Never 0 for a loaded area, so
+     * waypoints and clearance checks don't aim at y = 0.
+     */
+    private int missingHeight(Copies c, int x, int z) {
+        int cx = x >> 4;
+        int cz = z >> 4;
+        int best = Integer.MIN_VALUE;
+        for (int ox = -1; ox <= 1; ox++) {
+            for (int oz = -1; oz <= 1; oz++) {
+                if (ox == 0 && oz == 0) continue;
+                int[] heights = c.column(columnKey(cx + ox, cz + oz));
+                if (heights == null) continue;
+                // nearest column of that chunk to (x, z)
+                int lx = Math.max(0, Math.min(15, x - ((cx + ox) << 4)));
+                int lz = Math.max(0, Math.min(15, z - ((cz + oz) << 4)));
+                int h = heights[(lz << 4) | lx];
+                if (h > best) best = h;
+            }
+        }
+        return (best != Integer.MIN_VALUE) ? best : missHeight;
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z, BlockPos.MutableBlockPos cursor) {
+        if (y < 0 || y >= 256) return false;
+        long key = sectionKey(x >> 4, y >> 4, z >> 4);
+        long[] bits = front.section(key);
+        if (bits == null) {
+            missingSections.add(key);
+            return y < getHeight(x, z);
+        }
+        int i = ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+        return (bits[i >>> 6] & (1L << (i & 63))) != 0;
+    }
+
+    @Override
+    public double getViewerX() {
+        return viewerX;
+    }
+
+    @Override
+    public double getViewerY() {
+        return viewerY;
+    }
+
+    @Override
+    public double getViewerZ() {
+        return viewerZ;
+    }
+
+    @Override
+    public void playCall(ClientBird bird, BirdCallType type, SoundEvent event, float volume, float pitch,
+                         float maxDist, float fadeStart, float fadePower) {
+        calls.add(new CallRequest(bird, type, event, volume, pitch, maxDist, fadeStart, fadePower));
+    }
+
+    private static final class CallRequest {
+        final ClientBird bird;
+        final BirdCallType type;
+        final SoundEvent event;
+        final float volume, pitch, maxDist, fadeStart, fadePower;
+
+        CallRequest(ClientBird bird, BirdCallType type, SoundEvent event, float volume, float pitch,
+                    float maxDist, float fadeStart, float fadePower) {
+            this.bird = bird;
+            this.type = type;
+            this.event = event;
+            this.volume = volume;
+            this.pitch = pitch;
+            this.maxDist = maxDist;
+            this.fadeStart = fadeStart;
+            this.fadePower = fadePower;
+        }
+    }
+
+    /**
+     * One generation of copies: columns (256 heights) and sections (4096 bits) in pooled arrays, found through
+     * {@link LongSlotMap}s. Cleared copies keep their arrays for reuse.
+     */
+    private static final class Copies {
+        final LongSlotMap columnSlots = new LongSlotMap(256);
+        final LongSlotMap sectionSlots = new LongSlotMap(256);
+        int[][] columns = new int[64][];
+        long[][] sections = new long[64][];
+
+        int[] column(long key) {
+            int slot = columnSlots.get(key);
+            return (slot >= 0) ? columns[slot] : null;
+        }
+
+        long[] section(long key) {
+            int slot = sectionSlots.get(key);
+            return (slot >= 0) ? sections[slot] : null;
+        }
+
+        /**
+         * The array of {@code key}, added if missing (contents undefined until the caller fills it).
+         */
+        int[] columnForWrite(long key) {
+            int slot = columnSlots.get(key);
+            if (slot < 0) {
+                slot = columnSlots.size();
+                if (slot == columns.length) columns = Arrays.copyOf(columns, slot * 2);
+                if (columns[slot] == null) columns[slot] = new int[256];
+                columnSlots.put(key, slot);
+            }
+            return columns[slot];
+        }
+
+        long[] sectionForWrite(long key) {
+            int slot = sectionSlots.get(key);
+            if (slot < 0) {
+                slot = sectionSlots.size();
+                if (slot == sections.length) sections = Arrays.copyOf(sections, slot * 2);
+                if (sections[slot] == null) sections[slot] = new long[64];
+                sectionSlots.put(key, slot);
+            }
+            return sections[slot];
+        }
+
+        void clear() {
+            columnSlots.clear();
+            sectionSlots.clear();
+        }
+    }
+
+    /**
+     * Keys missed during a step, added from any simulation thread without locks or boxing. A key seen again is
+     * usually dropped by a small hashed filter (a rare collision drops a new key too; it's simply missed again
+     * next step), and so is anything past the capacity. Read and reset at the sync point only.
+     */
+    private static final class MissLog {
+        private static final int FILTER_BITS = 4096;
+
+        private final long[] keys;
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLongArray filter = new AtomicLongArray(FILTER_BITS / 64);
+
+        MissLog(int capacity) {
+            keys = new long[capacity];
+        }
+
+        void add(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            int bit = (int) (h >>> 52); // top 12 bits
+            int word = bit >>> 6;
+            long mask = 1L << (bit & 63);
+            while (true) {
+                long w = filter.get(word);
+                if ((w & mask) != 0) return;
+                if (filter.compareAndSet(word, w, w | mask)) break;
+            }
+            int i = count.getAndIncrement();
+            if (i < keys.length) keys[i] = key;
+        }
+
+        int size() {
+            return Math.min(count.get(), keys.length);
+        }
+
+        long get(int i) {
+            return keys[i];
+        }
+
+        void reset() {
+            count.set(0);
+            for (int w = 0; w < FILTER_BITS / 64; w++) {
+                filter.set(w, 0L);
+            }
+        }
+    }
+}
@@ -1,34 +1,45 @@
 package com.jubitus.birds.client.util;
 
+import com.jubitus.birds.client.BirdStore;
 import com.jubitus.birds.client.ClientBird;
-import net.minecraft.util.math.Vec3d;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 
+/**
+ * XZ grid of flock birds, partitioned per flock and rebuilt in place every tick.
+ * <p>
+ * Cells are keyed by (flockId, cellX, cellZ), so a query only ever walks birds of one flock even where
+ * several flocks overlap. Singles ({@code flockId == 0}) never take part in boids and are not indexed, and
+ * neither are members of a collapsed (impostor) flock.
+ * <p>
+ * {@link #rebuild} counting-sorts the birds by cell into flat entry arrays and keeps per-cell start offsets,
+ * so every cell is a contiguous range {@code [cellStart(c), cellEnd(c))}. Entries hold a snapshot of the
+ * kinematics taken at rebuild time, which keeps queries valid while the store is ticked / compacted.
+ * <p>
+ * Queries are cursor-style (find the cell, walk its range, or use a reusable {@link Query}) and allocate nothing.
+ */
 public class SpatialHash {
     private final int cellSize;
-    private final Map<Long, List<ClientBird>> buckets = new HashMap<>();
 
-    public SpatialHash(int cellSize) {
-        this.cellSize = Math.max(8, cellSize);
-    }
+    // (flockId, cell) key -> dense cell index (0..cellCount-1)
+    private final LongSlotMap cellByKey = new LongSlotMap(64);
+    private int cellCount;
+    // cellStart[c]..cellStart[c + 1] is the entry range of cell c
+    private int[] cellStart = new int[17];
+    private int[] cellFill = new int[16];
 
-    public void clear() {
-        buckets.clear();
-    }
+    // per store slot: which cell it went into (rebuild scratch)
+    private int[] slotCell = new int[64];
 
-    public void insert(ClientBird b) {
-        long key = key(b.pos);
-        buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(b);
-    }
+    // Entry snapshot, sorted by cell
+    public double[] x = new double[64], y = new double[64], z = new double[64];
+    public double[] velX = new double[64], velY = new double[64], velZ = new double[64];
+    public long[] id = new long[64];
+    public long[] flockId = new long[64];
+    private int size;
 
-    private long key(Vec3d p) {
-        int cx = floorDiv((int) Math.floor(p.x), cellSize);
-        int cz = floorDiv((int) Math.floor(p.z), cellSize);
-        return pack(cx, cz);
+    public SpatialHash(int cellSize) {
+        this.cellSize = Math.max(8, cellSize);
     }
 
     private static int floorDiv(int a, int b) {
@@ -41,18 +52,218 @@ public class SpatialHash {
         return (((long) x) << 32) ^ (z & 0xFFFFFFFFL);
     }
 
-    public List<ClientBird> queryNearby(Vec3d pos) {
-        int cx = floorDiv((int) Math.floor(pos.x), cellSize);
-        int cz = floorDiv((int) Math.floor(pos.z), cellSize);
+    /**
+     * Folds the flock id into the cell key. Two (flock, cell) pairs may collide; they then share a cell range,
+     * which is harmless because {@link Query} still checks the flock id of each entry.
+     */
+    private static long key(long flockId, int x, int z) {
+        return pack(x, z) * 0x9E3779B97F4A7C15L + flockId;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        cellByKey.clear();
+        cellCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Re-indexes every flock bird of the store. Reuses all arrays; they only grow.
+     */
+    public void rebuild(BirdStore store) {
+        clear();
+        int n = store.size();
+        ensureEntryCapacity(n);
+
+        // Pass 1: assign cells and count
+        int indexed = 0;
+        for (int i = 0; i < n; i++) {
+            ClientBird b = store.get(i);
+            long flock = b.flockId;
+            if (flock == 0L || b.isInFlockImpostor()) {
+                slotCell[i] = -1;
+                continue;
+            }
+            indexed++;
+
+            long key = key(flock, cellCoord(store.x[i]), cellCoord(store.z[i]));
+            int c = cellByKey.get(key);
+            if (c < 0) {
+                c = cellCount++;
+                ensureCellCapacity(cellCount);
+                cellFill[c] = 0;
+                cellByKey.put(key, c);
+            }
+            cellFill[c]++;
+            slotCell[i] = c;
+        }
+
+        // Prefix sums -> start offsets; cellFill becomes the write cursor
+        int acc = 0;
+        for (int c = 0; c < cellCount; c++) {
+            cellStart[c] = acc;
+            acc += cellFill[c];
+            cellFill[c] = cellStart[c];
+        }
+        cellStart[cellCount] = acc;
+
+        // Pass 2: scatter snapshot into sorted order
+        for (int i = 0; i < n; i++) {
+            if (slotCell[i] < 0) continue;
+            int e = cellFill[slotCell[i]]++;
+            x[e] = store.x[i];
+            y[e] = store.y[i];
+            z[e] = store.z[i];
+            velX[e] = store.velX[i];
+            velY[e] = store.velY[i];
+            velZ[e] = store.velZ[i];
+            id[e] = store.idAt(i);
+            flockId[e] = store.get(i).flockId;
+        }
+        size = indexed;
+    }
+
+    public int cellCoord(double v) {
+        return floorDiv((int) Math.floor(v), cellSize);
+    }
+
+    /**
+     * @return dense cell index, or -1 if no bird of that flock is in that cell
+     */
+    public int findCell(long flockId, int cx, int cz) {
+        return cellByKey.get(key(flockId, cx, cz));
+    }
+
+    public int cellStart(int cell) {
+        return cellStart[cell];
+    }
+
+    public int cellEnd(int cell) {
+        return cellStart[cell + 1];
+    }
+
+    /**
+     * Reusable radius query cursor. Keep one per caller (per bird / per worker thread).
+     * <pre>
+     * q.begin(grid, flockId, x, y, z, radius, yBand);
+     * for (int e = q.next(); e >= 0; e = q.next()) { ... grid.x[e] ..., q.dist2 ... }
+     * </pre>
+     */
+    public static final class Query {
+        // offset of the current hit from the query centre (hit minus centre)
+        public double dx, dy, dz, dist2;
+
+        private SpatialHash grid;
+        private long flock;
+        private double qx, qy, qz, radius2, yBand;
+        private int minCx, maxCx, minCz, maxCz;
+        private int cx, cz;
+        private int e, end;
+
+        /**
+         * Starts a query for all birds of {@code flockId} within {@code radius} (3D) of (x, y, z).
+         * The cell ring is sized from the radius, so any cell size works.
+         *
+         * @param yBand if &gt; 0, entries with |dy| &gt; yBand are rejected before the distance test
+         */
+        public Query begin(SpatialHash grid, long flockId, double x, double y, double z, double radius, double yBand) {
+            this.grid = grid;
+            this.flock = flockId;
+            this.qx = x;
+            this.qy = y;
+            this.qz = z;
+            this.radius2 = radius * radius;
+            this.yBand = yBand;
 
-        List<ClientBird> out = new ArrayList<>();
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dz = -1; dz <= 1; dz++) {
-                long k = pack(cx + dx, cz + dz);
-                List<ClientBird> list = buckets.get(k);
-                if (list != null) out.addAll(list);
+            this.minCx = grid.cellCoord(x - radius);
+            this.maxCx = grid.cellCoord(x + radius);
+            this.minCz = grid.cellCoord(z - radius);
+            this.maxCz = grid.cellCoord(z + radius);
+            this.cx = minCx;
+            this.cz = minCz - 1; // advanceCell() moves to the first cell
+            this.e = 0;
+            this.end = 0;
+            return this;
+        }
+
+        /**
+         * @return the next in-radius entry index, or -1 when done
+         */
+        public int next() {
+            while (true) {
+                while (e < end) {
+                    int i = e++;
+                    if (grid.flockId[i] != flock) continue; // key collision with another flock
+                    double ddy = grid.y[i] - qy;
+                    if (yBand > 0 && (ddy > yBand || ddy < -yBand)) continue;
+                    double ddx = grid.x[i] - qx;
+                    double ddz = grid.z[i] - qz;
+                    double d2 = ddx * ddx + ddy * ddy + ddz * ddz;
+                    if (d2 > radius2) continue;
+
+                    dx = ddx;
+                    dy = ddy;
+                    dz = ddz;
+                    dist2 = d2;
+                    return i;
+                }
+                if (!advanceCell()) return -1;
+            }
+        }
+
+        private boolean advanceCell() {
+            if (cx > maxCx) return false;
+            int size = grid.cellSize;
+            while (true) {
+                if (++cz > maxCz) {
+                    cz = minCz;
+                    if (++cx > maxCx) {
+                        e = end = 0;
+                        return false;
+                    }
+                }
+
+                // skip ring cells whose closest XZ point is already outside the radius (corners)
+                double x0 = (double) cx * size;
+                double z0 = (double) cz * size;
+                double ex = (qx < x0) ? x0 - qx : ((qx > x0 + size) ? qx - (x0 + size) : 0);
+                double ez = (qz < z0) ? z0 - qz : ((qz > z0 + size) ? qz - (z0 + size) : 0);
+                if (ex * ex + ez * ez > radius2) continue;
+
+                int cell = grid.findCell(flock, cx, cz);
+                if (cell < 0) continue;
+                e = grid.cellStart[cell];
+                end = grid.cellStart[cell + 1];
+                return true;
             }
         }
-        return out;
+    }
+
+    private void ensureEntryCapacity(int n) {
+        if (n <= id.length && n <= slotCell.length) return;
+        int cap = Math.max(n, id.length + (id.length >> 1));
+        x = Arrays.copyOf(x, cap);
+        y = Arrays.copyOf(y, cap);
+        z = Arrays.copyOf(z, cap);
+        velX = Arrays.copyOf(velX, cap);
+        velY = Arrays.copyOf(velY, cap);
+        velZ = Arrays.copyOf(velZ, cap);
+        id = Arrays.copyOf(id, cap);
+        flockId = Arrays.copyOf(flockId, cap);
+        slotCell = Arrays.copyOf(slotCell, cap);
+    }
+
+    private void ensureCellCapacity(int cells) {
+        if (cells < cellStart.length && cells <= cellFill.length) return;
+        int cap = Math.max(cells + 1, cellStart.length + (cellStart.length >> 1));
+        cellStart = Arrays.copyOf(cellStart, cap);
+        cellFill = Arrays.copyOf(cellFill, cap);
     }
 }
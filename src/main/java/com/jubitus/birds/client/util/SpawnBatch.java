@@ -0,0 +1,187 @@
+package com.jubitus.birds.client.util;
+
+import com.jubitus.birds.client.ClientBird;
+import com.jubitus.birds.species.BirdSpecies;
+import com.jubitus.birds.species.BirdSpeciesRegistry;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Output of one spawn pass: spawn descriptors instead of birds.
+ * <p>
+ * A descriptor is a row of parallel primitive arrays (id, species index, flock, position, direction, speed),
+ * like {@code BirdStore}. Nothing else about the bird exists until the caller admits it and calls
+ * {@link #materialize}, so candidates dropped by the cap cost neither objects nor world queries: the ground
+ * height is only looked up then ({@link #groundRelative}: {@code y} is the altitude above ground). Flock members
+ * all stand on the ground under the flock's centre, looked up once for the whole flock.
+ * Flocks are descriptors too ({@link #newFlock}). The batch is reused from pass to pass.
+ */
+public class SpawnBatch {
+
+    // Per descriptor
+    public long[] id = new long[32];
+    public int[] species = new int[32];
+    public long[] flockId = new long[32];
+    // index into the flock arrays, -1 for singles
+    public int[] flock = new int[32];
+    public double[] x = new double[32], y = new double[32], z = new double[32];
+    public double[] dirX = new double[32], dirY = new double[32], dirZ = new double[32];
+    public double[] speed = new double[32];
+    public boolean[] groundRelative = new boolean[32];
+    private int size;
+
+    // Per flock: id, initial heading (XZ), centre and its ground height (NaN until a member is materialized)
+    private long[] flockIds = new long[8];
+    private double[] flockDirX = new double[8], flockDirZ = new double[8];
+    private double[] flockX = new double[8], flockZ = new double[8], flockGround = new double[8];
+    private int flockCount;
+
+    // Evaluated cells in order; the descriptors of cell c end (exclusive) at cellEnd[c].
+    // A cell is settled if its species came from its own biome (not a stand-in while its centre isn't loaded)
+    private int[] cellX = new int[16], cellZ = new int[16], cellEnd = new int[16];
+    private boolean[] cellSettled = new boolean[16];
+    private int cellCount;
+
+    // Per-cell generator, reseeded for every cell
+    final Random rng = new Random();
+
+    public void clear() {
+        size = 0;
+        flockCount = 0;
+        cellCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int cellCount() {
+        return cellCount;
+    }
+
+    public int cellX(int c) {
+        return cellX[c];
+    }
+
+    public int cellZ(int c) {
+        return cellZ[c];
+    }
+
+    public int cellEnd(int c) {
+        return cellEnd[c];
+    }
+
+    public boolean cellSettled(int c) {
+        return cellSettled[c];
+    }
+
+    int addFlock(long id, double x, double z, double dirX, double dirZ) {
+        if (flockCount == flockIds.length) {
+            int cap = flockCount * 2;
+            flockIds = Arrays.copyOf(flockIds, cap);
+            flockDirX = Arrays.copyOf(flockDirX, cap);
+            flockDirZ = Arrays.copyOf(flockDirZ, cap);
+            flockX = Arrays.copyOf(flockX, cap);
+            flockZ = Arrays.copyOf(flockZ, cap);
+            flockGround = Arrays.copyOf(flockGround, cap);
+        }
+        int f = flockCount++;
+        flockIds[f] = id;
+        flockDirX[f] = dirX;
+        flockDirZ[f] = dirZ;
+        flockX[f] = x;
+        flockZ[f] = z;
+        flockGround[f] = Double.NaN;
+        return f;
+    }
+
+    void add(long id, int species, long flockId, int flock, double x, double y, double z,
+             double dirX, double dirY, double dirZ, double speed, boolean groundRelative) {
+        if (size == this.id.length) grow(size * 2);
+        int i = size++;
+        this.id[i] = id;
+        this.species[i] = species;
+        this.flockId[i] = flockId;
+        this.flock[i] = flock;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.z[i] = z;
+        this.dirX[i] = dirX;
+        this.dirY[i] = dirY;
+        this.dirZ[i] = dirZ;
+        this.speed[i] = speed;
+        this.groundRelative[i] = groundRelative;
+    }
+
+    void endCell(int cx, int cz, boolean settled) {
+        if (cellCount == cellX.length) {
+            int cap = cellCount * 2;
+            cellX = Arrays.copyOf(cellX, cap);
+            cellZ = Arrays.copyOf(cellZ, cap);
+            cellEnd = Arrays.copyOf(cellEnd, cap);
+            cellSettled = Arrays.copyOf(cellSettled, cap);
+        }
+        cellX[cellCount] = cx;
+        cellZ[cellCount] = cz;
+        cellEnd[cellCount] = size;
+        cellSettled[cellCount] = settled;
+        cellCount++;
+    }
+
+    private void grow(int cap) {
+        id = Arrays.copyOf(id, cap);
+        species = Arrays.copyOf(species, cap);
+        flockId = Arrays.copyOf(flockId, cap);
+        flock = Arrays.copyOf(flock, cap);
+        x = Arrays.copyOf(x, cap);
+        y = Arrays.copyOf(y, cap);
+        z = Arrays.copyOf(z, cap);
+        dirX = Arrays.copyOf(dirX, cap);
+        dirY = Arrays.copyOf(dirY, cap);
+        dirZ = Arrays.copyOf(dirZ, cap);
+        speed = Arrays.copyOf(speed, cap);
+        groundRelative = Arrays.copyOf(groundRelative, cap);
+    }
+
+    /**
+     * Builds the bird for descriptor {@code i} (client thread).
+     *
+     * @return null if its species is gone (reloaded since the pass)
+     */
+    public ClientBird materialize(int i, World world) {
+        BirdSpecies s = BirdSpeciesRegistry.byIndex(species[i]);
+        if (s == null) return null;
+
+        double py = y[i];
+        if (groundRelative[i]) py += ground(i, world);
+
+        ClientBird b = new ClientBird(s, id[i], x[i], py, z[i], dirX[i], dirY[i], dirZ[i], speed[i]);
+        b.flockId = flockId[i];
+        return b;
+    }
+
+    private double ground(int i, World world) {
+        int f = flock[i];
+        if (f < 0) return world.getHeight(MathHelper.floor(x[i]), MathHelper.floor(z[i]));
+
+        double g = flockGround[f];
+        if (Double.isNaN(g)) {
+            g = world.getHeight(MathHelper.floor(flockX[f]), MathHelper.floor(flockZ[f]));
+            flockGround[f] = g;
+        }
+        return g;
+    }
+
+    /**
+     * The flock of descriptor {@code i}, for when its first member is admitted (null for singles).
+     */
+    public Flock newFlock(int i) {
+        int f = flock[i];
+        if (f < 0) return null;
+        return new Flock(flockIds[f], new Vec3d(flockDirX[f], 0, flockDirZ[f]));
+    }
+}
@@ -0,0 +1,57 @@
+package com.jubitus.birds.client.util;
+
+import java.util.Arrays;
+
+/**
+ * Remembers which spawn cells have been fully materialized, so spawning only evaluates cells that entered the
+ * spawn radius or moved on to a new time window.
+ * <p>
+ * A toroidal grid of (2r+1)² entries indexed by cell coordinates modulo its side: every cell within the radius
+ * has an entry of its own, and a cell entering the radius takes over the entry of the one that just left on the
+ * opposite side (which is forgotten, so it is evaluated again if the player comes back). An entry only counts for
+ * the exact (cellX, cellZ, window) it was written for. Allocation-free after the first use of a radius.
+ */
+public class SpawnCellCache {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private int side;
+    private int[] cellX = new int[0];
+    private int[] cellZ = new int[0];
+    private long[] window = new long[0];
+
+    /**
+     * Sizes the grid for {@code radiusCells}; a different radius starts over.
+     */
+    public void setRadius(int radiusCells) {
+        int s = 2 * Math.max(0, radiusCells) + 1;
+        if (s == side) return;
+        side = s;
+        cellX = new int[s * s];
+        cellZ = new int[s * s];
+        window = new long[s * s];
+        Arrays.fill(window, EMPTY);
+    }
+
+    public boolean isDone(int cx, int cz, long window) {
+        if (side == 0) return false;
+        int i = index(cx, cz);
+        return this.window[i] == window && cellX[i] == cx && cellZ[i] == cz;
+    }
+
+    public void markDone(int cx, int cz, long window) {
+        if (side == 0) return;
+        int i = index(cx, cz);
+        cellX[i] = cx;
+        cellZ[i] = cz;
+        this.window[i] = window;
+    }
+
+    public void clear() {
+        Arrays.fill(window, EMPTY);
+    }
+
+    private int index(int cx, int cz) {
+        return Math.floorMod(cx, side) * side + Math.floorMod(cz, side);
+    }
+}
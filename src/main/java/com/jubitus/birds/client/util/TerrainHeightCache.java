@@ -0,0 +1,231 @@
+package com.jubitus.birds.client.util;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Client-side copy of chunk height maps, keyed by chunk column.
+ * <p>
+ * {@link #height} returns exactly what {@code world.getHeight(x, z)} returns (top solid/liquid block, 0 for
+ * chunks that aren't loaded), but a hit is a hash probe plus an array read instead of a chunk-map lookup.
+ * Columns are copied lazily from the chunk's height map and dropped again when the chunk loads/unloads or a
+ * block in it changes (this class registers itself as a world listener for that).
+ * <p>
+ * Not thread-safe for writes. While {@link #setReadOnly} is on (parallel tick), misses read the world
+ * directly and nothing is inserted, so concurrent readers are fine.
+ */
+public class TerrainHeightCache implements IWorldEventListener {
+
+    private static final int WORLD_LIMIT = 30000000;
+    // Cached unloaded columns never get an unload event; start over if the table grows past this
+    private static final int MAX_COLUMNS = 4096;
+    // Slot 0 is the shared all-zero column used for chunks that aren't loaded
+    private static final int EMPTY_SLOT = 0;
+
+    private final LongSlotMap slotByChunk = new LongSlotMap(512);
+    private int[][] columns = new int[64][];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int usedSlots = 1;
+
+    private World world;
+    private volatile boolean readOnly;
+    private Listener listener;
+
+    public TerrainHeightCache() {
+        columns[EMPTY_SLOT] = new int[256];
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return (((long) cx) << 32) ^ (cz & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Attaches the cache to {@code world} (client thread). Switching worlds clears everything.
+     */
+    public void bind(@Nullable World world) {
+        if (world == this.world) return;
+        if (this.world != null) this.world.removeEventListener(this);
+        clear();
+        this.world = world;
+        if (world != null) world.addEventListener(this);
+    }
+
+    /**
+     * Told about every chunk whose columns may have changed (used to keep {@link SnapshotBirdWorld} in step).
+     */
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    public void clear() {
+        slotByChunk.clear();
+        freeCount = 0;
+        usedSlots = 1;
+    }
+
+    public int size() {
+        return slotByChunk.size();
+    }
+
+    // ---- sampling ----
+
+    /**
+     * Same result as {@code world.getHeight(x, z)}.
+     */
+    public int height(World world, int x, int z) {
+        if (world != this.world || x < -WORLD_LIMIT || z < -WORLD_LIMIT || x >= WORLD_LIMIT || z >= WORLD_LIMIT) {
+            return world.getHeight(x, z);
+        }
+
+        int slot = slotByChunk.get(chunkKey(x >> 4, z >> 4));
+        if (slot < 0) {
+            if (readOnly) return world.getHeight(x, z);
+            slot = load(world, x >> 4, z >> 4);
+        }
+        return columns[slot][((z & 15) << 4) | (x & 15)];
+    }
+
+    public int height(World world, double x, double z) {
+        return height(world, MathHelper.floor(x), MathHelper.floor(z));
+    }
+
+    /**
+     * Copies the columns of chunk (cx, cz) into {@code out} (256 entries, index {@code (z & 15) << 4 | (x & 15)})
+     * (client thread). All zero if the chunk isn't loaded.
+     */
+    public void copyChunk(World world, int cx, int cz, int[] out) {
+        int slot = slotByChunk.get(chunkKey(cx, cz));
+        if (slot < 0) slot = load(world, cx, cz);
+        System.arraycopy(columns[slot], 0, out, 0, 256);
+    }
+
+    /**
+     * Pre-loads the columns of the chunk containing (x, z) and its 8 neighbours (client thread).
+     */
+    public void warm(World world, double x, double z) {
+        if (readOnly || world != this.world) return;
+        int cx = MathHelper.floor(x) >> 4;
+        int cz = MathHelper.floor(z) >> 4;
+        for (int ox = -1; ox <= 1; ox++) {
+            for (int oz = -1; oz <= 1; oz++) {
+                if (slotByChunk.get(chunkKey(cx + ox, cz + oz)) < 0) load(world, cx + ox, cz + oz);
+            }
+        }
+    }
+
+    private int load(World world, int cx, int cz) {
+        if (slotByChunk.size() >= MAX_COLUMNS) clear();
+
+        Chunk chunk = world.getChunkProvider().getLoadedChunk(cx, cz);
+        if (chunk == null || chunk.isEmpty()) {
+            slotByChunk.put(chunkKey(cx, cz), EMPTY_SLOT);
+            return EMPTY_SLOT;
+        }
+
+        int slot = allocSlot();
+        System.arraycopy(chunk.getHeightMap(), 0, columns[slot], 0, 256);
+        slotByChunk.put(chunkKey(cx, cz), slot);
+        return slot;
+    }
+
+    private int allocSlot() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+
+        int slot = usedSlots++;
+        if (slot >= columns.length) columns = Arrays.copyOf(columns, columns.length * 2);
+        if (columns[slot] == null) columns[slot] = new int[256];
+        return slot;
+    }
+
+    // ---- invalidation ----
+
+    public void invalidateChunk(int cx, int cz) {
+        if (listener != null) listener.onChunkInvalidated(cx, cz);
+        long key = chunkKey(cx, cz);
+        int slot = slotByChunk.get(key);
+        if (slot < 0) return;
+        slotByChunk.remove(key);
+        if (slot != EMPTY_SLOT) {
+            if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    @Override
+    public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+        invalidateChunk(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    @Override
+    public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
+        // Fired after chunk data packets (full chunks and multi-block changes)
+        for (int cx = x1 >> 4; cx <= x2 >> 4; cx++) {
+            for (int cz = z1 >> 4; cz <= z2 >> 4; cz++) {
+                invalidateChunk(cx, cz);
+            }
+        }
+    }
+
+    @Override
+    public void notifyLightSet(BlockPos pos) {
+    }
+
+    @Override
+    public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category,
+                                         double x, double y, double z, float volume, float pitch) {
+    }
+
+    @Override
+    public void playRecord(SoundEvent soundIn, BlockPos pos) {
+    }
+
+    @Override
+    public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord,
+                              double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+    }
+
+    @Override
+    public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z,
+                              double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+    }
+
+    @Override
+    public void onEntityAdded(Entity entityIn) {
+    }
+
+    @Override
+    public void onEntityRemoved(Entity entityIn) {
+    }
+
+    @Override
+    public void broadcastSound(int soundID, BlockPos pos, int data) {
+    }
+
+    @Override
+    public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data) {
+    }
+
+    @Override
+    public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {
+    }
+
+    public interface Listener {
+        void onChunkInvalidated(int cx, int cz);
+    }
+}
@@ -2,6 +2,7 @@ package com.jubitus.birds.proxy;
 
 
 import com.jubitus.birds.client.BirdManager;
+import com.jubitus.birds.client.commands.CommandJubitusBirds;
 import com.jubitus.birds.client.commands.CommandJubitusBirdsPlaySound;
 import com.jubitus.birds.client.commands.CommandJubitusBirdsReload;
 import com.jubitus.birds.client.sound.BirdSoundSystem;
@@ -32,6 +33,7 @@ public class ClientProxy extends CommonProxy {
 
         ClientCommandHandler.instance.registerCommand(new CommandJubitusBirdsReload());
         ClientCommandHandler.instance.registerCommand(new CommandJubitusBirdsPlaySound());
+        ClientCommandHandler.instance.registerCommand(new CommandJubitusBirds());
     }
 
 
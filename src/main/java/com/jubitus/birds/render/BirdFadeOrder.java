@@ -0,0 +1,122 @@
+package com.jubitus.birds.render;
+
+import com.jubitus.birds.client.util.LongSlotMap;
+
+import java.util.Arrays;
+
+/**
+ * Back-to-front order of the fading (alpha-blended) birds, kept from one frame to the next.
+ * <p>
+ * Each frame starts from last frame's order (birds that are no longer fading drop out, new ones are appended)
+ * and finishes with an insertion sort on the camera distance. Birds and camera move little between frames, so
+ * the list is almost sorted already and the sort is close to linear.
+ * <p>
+ * The fading set isn't always small: the fog fade covers the outer third of the view distance, and underwater
+ * every bird fades. From {@link #BUCKET_MIN} birds on, the list is first counting-sorted into
+ * {@link #BUCKETS} distance buckets, so the insertion sort only ever moves birds within a bucket and a big
+ * reorder (the camera jumping, a teleport) stays linear too.
+ */
+public class BirdFadeOrder {
+
+    private static final int BUCKET_MIN = 128;
+    private static final int BUCKETS = 1024;
+
+    private final LongSlotMap entryById = new LongSlotMap(64);
+    private long[] prevIds = new long[64];
+    private int prevCount;
+    private int[] work = new int[64];
+    private int[] spare = new int[64];
+    private int[] bucketOf = new int[64];
+    private final int[] bucketStart = new int[BUCKETS + 1];
+
+    /**
+     * Sorts {@code entries[from .. from + count)} (draw entry indices) far to near.
+     *
+     * @param entryId    bird id per draw entry
+     * @param entryDist2 squared camera distance per draw entry
+     */
+    public void sort(int[] entries, int from, int count, long[] entryId, double[] entryDist2) {
+        if (work.length < count) {
+            int cap = Math.max(count, work.length * 2);
+            work = new int[cap];
+            spare = new int[cap];
+            bucketOf = new int[cap];
+        }
+
+        entryById.clear();
+        for (int k = from; k < from + count; k++) {
+            entryById.put(entryId[entries[k]], entries[k]);
+        }
+
+        // last frame's order first, then the newcomers
+        int n = 0;
+        for (int k = 0; k < prevCount; k++) {
+            int d = entryById.get(prevIds[k]);
+            if (d < 0) continue;
+            work[n++] = d;
+            entryById.remove(prevIds[k]);
+        }
+        for (int k = from; k < from + count; k++) {
+            int d = entries[k];
+            if (entryById.containsKey(entryId[d])) work[n++] = d;
+        }
+
+        if (n >= BUCKET_MIN) bucketByDistance(n, entryDist2);
+
+        // insertion sort, farthest first
+        for (int i = 1; i < n; i++) {
+            int d = work[i];
+            double key = entryDist2[d];
+            int j = i - 1;
+            while (j >= 0 && entryDist2[work[j]] < key) {
+                work[j + 1] = work[j];
+                j--;
+            }
+            work[j + 1] = d;
+        }
+
+        System.arraycopy(work, 0, entries, from, n);
+        if (prevIds.length < n) prevIds = Arrays.copyOf(prevIds, Math.max(n, prevIds.length * 2));
+        for (int k = 0; k < n; k++) {
+            prevIds[k] = entryId[work[k]];
+        }
+        prevCount = n;
+    }
+
+    /**
+     * Stable counting sort of {@code work[0 .. n)} into distance buckets, farthest first (linear in distance
+     * between the nearest and farthest entry).
+     */
+    private void bucketByDistance(int n, double[] entryDist2) {
+        double near = Double.POSITIVE_INFINITY;
+        double far = 0.0;
+        for (int k = 0; k < n; k++) {
+            double d2 = entryDist2[work[k]];
+            if (d2 < near) near = d2;
+            if (d2 > far) far = d2;
+        }
+        near = Math.sqrt(near);
+        far = Math.sqrt(far);
+        if (far - near < 1e-6) return;
+
+        double scale = (BUCKETS - 1) / (far - near);
+        Arrays.fill(bucketStart, 0);
+        for (int k = 0; k < n; k++) {
+            int b = (int) ((far - Math.sqrt(entryDist2[work[k]])) * scale);
+            b = Math.max(0, Math.min(BUCKETS - 1, b));
+            bucketOf[k] = b;
+            bucketStart[b + 1]++;
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        // bucketStart[b] is used as the write cursor
+        for (int k = 0; k < n; k++) {
+            spare[bucketStart[bucketOf[k]]++] = work[k];
+        }
+
+        int[] t = work;
+        work = spare;
+        spare = t;
+    }
+}
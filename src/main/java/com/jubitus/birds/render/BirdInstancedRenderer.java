@@ -0,0 +1,272 @@
+package com.jubitus.birds.render;
+
+import com.jubitus.birds.JubitusBirds;
+import net.minecraft.client.renderer.OpenGlHelper;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.ContextCapabilities;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.opengl.GLContext;
+
+import java.nio.FloatBuffer;
+
+/**
+ * GPU-instanced bird path: a static unit-quad VBO plus one small instance record per bird per frame.
+ * Rotation (yaw/pitch/roll + the camera tilt), flap and fog run in the vertex/fragment shader, so the CPU only
+ * writes {@link #FLOATS_PER_INSTANCE} floats per bird.
+ * <p>
+ * Needs OpenGL 3.3 (instanced arrays) and shader support. {@link #isAvailable()} is false if either is missing
+ * or the program fails to build; {@link RenderBird} then uses the regular batched path. Render thread only.
+ */
+public class BirdInstancedRenderer {
+
+    public static final BirdInstancedRenderer INSTANCE = new BirdInstancedRenderer();
+
+    // pos(3) yaw/pitch/roll(3) scale(1) flap amp/speed/phase(3) alpha(1) uv rect(4) light block/sky(2)
+    static final int FLOATS_PER_INSTANCE = 17;
+    private static final int STRIDE = FLOATS_PER_INSTANCE * 4;
+
+    private static final int ATTR_CORNER = 0;
+    private static final int ATTR_POS = 1;
+    private static final int ATTR_ROT = 2;
+    private static final int ATTR_ANIM = 3; // scale, flap amp, flap speed, flap phase
+    private static final int ATTR_ALPHA = 4;
+    private static final int ATTR_UV = 5;
+    private static final int ATTR_LIGHT = 6;
+
+    private static final String VERTEX_SHADER = "#version 120\n" +
+            "attribute vec4 a_corner;\n" + // x = wing side (-1/+1), y = head/tail (+1/-1), zw = base uv (0..1)
+            "attribute vec3 a_pos;\n" +    // camera-relative
+            "attribute vec3 a_rot;\n" +    // yaw, pitch, roll (radians)
+            "attribute vec4 a_anim;\n" +
+            "attribute float a_alpha;\n" +
+            "attribute vec4 a_uv;\n" +
+            "attribute vec2 a_light;\n" +
+            "uniform float u_time;\n" +
+            "varying vec2 v_uv;\n" +
+            "varying vec2 v_light;\n" +
+            "varying float v_alpha;\n" +
+            "varying float v_fogDist;\n" +
+            "mat3 rotX(float a) { float c = cos(a), s = sin(a); return mat3(1.0, 0.0, 0.0, 0.0, c, s, 0.0, -s, c); }\n" +
+            "mat3 rotY(float a) { float c = cos(a), s = sin(a); return mat3(c, 0.0, -s, 0.0, 1.0, 0.0, s, 0.0, c); }\n" +
+            "mat3 rotZ(float a) { float c = cos(a), s = sin(a); return mat3(c, s, 0.0, -s, c, 0.0, 0.0, 0.0, 1.0); }\n" +
+            "void main() {\n" +
+            "    vec4 eye;\n" +
+            "    if (a_anim.x < 0.0) {\n" + // billboard: offset in eye space, no rotation / flap
+            "        eye = gl_ModelViewMatrix * vec4(a_pos, 1.0);\n" +
+            "        eye.xy += vec2(a_corner.x * 1.2, a_corner.y * 0.7) * -a_anim.x;\n" +
+            "    } else {\n" +
+            "        float dist = length(a_pos);\n" +
+            "        vec3 toCam = (dist > 1e-6) ? -a_pos / dist : vec3(0.0);\n" +
+            "        float tilt = clamp((dist - 12.0) / 64.0, 0.0, 1.0) * (1.0 - min(1.0, abs(toCam.y))) * radians(25.0);\n" +
+            "        mat3 m = rotZ(-toCam.x * tilt) * rotX(toCam.z * tilt) * rotY(a_rot.x) * rotX(a_rot.y) * rotZ(a_rot.z);\n" +
+            "        float flap = a_anim.y * sin((u_time + a_anim.w) * a_anim.z);\n" +
+            "        vec3 local = vec3(a_corner.x * (1.2 + flap), 0.0, a_corner.y * 0.7) * a_anim.x;\n" +
+            "        eye = gl_ModelViewMatrix * vec4(a_pos + m * local, 1.0);\n" +
+            "    }\n" +
+            "    gl_Position = gl_ProjectionMatrix * eye;\n" +
+            "    v_fogDist = length(eye.xyz);\n" +
+            "    v_uv = mix(a_uv.xy, a_uv.zw, a_corner.zw);\n" +
+            "    v_light = (a_light + 8.0) / 256.0;\n" +
+            "    v_alpha = a_alpha;\n" +
+            "}\n";
+
+    private static final String FRAGMENT_SHADER = "#version 120\n" +
+            "uniform sampler2D u_texture;\n" +
+            "uniform sampler2D u_lightmap;\n" +
+            "varying vec2 v_uv;\n" +
+            "varying vec2 v_light;\n" +
+            "varying float v_alpha;\n" +
+            "varying float v_fogDist;\n" +
+            "void main() {\n" +
+            "    vec4 c = texture2D(u_texture, v_uv) * texture2D(u_lightmap, v_light);\n" +
+            "    c.a *= v_alpha;\n" +
+            "    if (c.a <= 0.1) discard;\n" +
+            "    float fog = clamp((gl_Fog.end - v_fogDist) * gl_Fog.scale, 0.0, 1.0);\n" +
+            "    gl_FragColor = vec4(mix(gl_Fog.color.rgb, c.rgb, fog), c.a);\n" +
+            "}\n";
+
+    private boolean initialised;
+    private boolean available;
+
+    private int program;
+    private int quadVbo;
+    private int instanceVbo;
+    private int uTime;
+
+    private FloatBuffer instances = BufferUtils.createFloatBuffer(FLOATS_PER_INSTANCE * 256);
+    private int instanceCount;
+
+    /**
+     * Lazily builds the program and buffers the first time it's asked (render thread).
+     */
+    public boolean isAvailable() {
+        if (!initialised) {
+            initialised = true;
+            available = init();
+        }
+        return available;
+    }
+
+    private boolean init() {
+        ContextCapabilities caps = GLContext.getCapabilities();
+        if (caps == null || !caps.OpenGL33 || !OpenGlHelper.shadersSupported) {
+            JubitusBirds.LOGGER.info("[JubitusBirds] Instanced bird rendering unavailable (needs OpenGL 3.3 + shaders), using the regular renderer.");
+            return false;
+        }
+
+        int vs = compile(GL20.GL_VERTEX_SHADER, VERTEX_SHADER);
+        int fs = compile(GL20.GL_FRAGMENT_SHADER, FRAGMENT_SHADER);
+        if (vs == 0 || fs == 0) {
+            if (vs != 0) GL20.glDeleteShader(vs);
+            if (fs != 0) GL20.glDeleteShader(fs);
+            return false;
+        }
+
+        program = GL20.glCreateProgram();
+        GL20.glAttachShader(program, vs);
+        GL20.glAttachShader(program, fs);
+        GL20.glBindAttribLocation(program, ATTR_CORNER, "a_corner");
+        GL20.glBindAttribLocation(program, ATTR_POS, "a_pos");
+        GL20.glBindAttribLocation(program, ATTR_ROT, "a_rot");
+        GL20.glBindAttribLocation(program, ATTR_ANIM, "a_anim");
+        GL20.glBindAttribLocation(program, ATTR_ALPHA, "a_alpha");
+        GL20.glBindAttribLocation(program, ATTR_UV, "a_uv");
+        GL20.glBindAttribLocation(program, ATTR_LIGHT, "a_light");
+        GL20.glLinkProgram(program);
+        GL20.glDeleteShader(vs);
+        GL20.glDeleteShader(fs);
+
+        if (GL20.glGetProgrami(program, GL20.GL_LINK_STATUS) == GL11.GL_FALSE) {
+            JubitusBirds.LOGGER.warn("[JubitusBirds] Bird shader failed to link, using the regular renderer: {}",
+                    GL20.glGetProgramInfoLog(program, 4096));
+            GL20.glDeleteProgram(program);
+            program = 0;
+            return false;
+        }
+
+        int previous = GL11.glGetInteger(GL20.GL_CURRENT_PROGRAM);
+        GL20.glUseProgram(program);
+        GL20.glUniform1i(GL20.glGetUniformLocation(program, "u_texture"), 0);
+        GL20.glUniform1i(GL20.glGetUniformLocation(program, "u_lightmap"), 1); // lightmap texture unit
+        uTime = GL20.glGetUniformLocation(program, "u_time");
+        GL20.glUseProgram(previous);
+
+        // Triangle strip: left-head, right-head, left-tail, right-tail
+        FloatBuffer quad = BufferUtils.createFloatBuffer(16);
+        quad.put(new float[]{
+                -1, 1, 0, 0,
+                1, 1, 1, 0,
+                -1, -1, 0, 1,
+                1, -1, 1, 1
+        }).flip();
+        quadVbo = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, quadVbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, quad, GL15.GL_STATIC_DRAW);
+
+        instanceVbo = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
+        JubitusBirds.LOGGER.info("[JubitusBirds] Instanced bird rendering enabled.");
+        return true;
+    }
+
+    private static int compile(int type, String src) {
+        int shader = GL20.glCreateShader(type);
+        GL20.glShaderSource(shader, src);
+        GL20.glCompileShader(shader);
+        if (GL20.glGetShaderi(shader, GL20.GL_COMPILE_STATUS) == GL11.GL_FALSE) {
+            JubitusBirds.LOGGER.warn("[JubitusBirds] Bird shader failed to compile, using the regular renderer: {}",
+                    GL20.glGetShaderInfoLog(shader, 4096));
+            GL20.glDeleteShader(shader);
+            return 0;
+        }
+        return shader;
+    }
+
+    // ---- per frame ----
+
+    public void begin(int capacity) {
+        int floats = capacity * FLOATS_PER_INSTANCE;
+        if (instances.capacity() < floats) {
+            instances = BufferUtils.createFloatBuffer(Math.max(floats, instances.capacity() * 3 / 2));
+        }
+        instances.clear();
+        instanceCount = 0;
+    }
+
+    /**
+     * Appends one bird. Angles in degrees, position relative to the camera. A negative {@code scale} draws a
+     * camera-facing billboard of that size instead (angles and flap are ignored).
+     */
+    public void put(double x, double y, double z, float yaw, float pitch, float roll,
+                    double scale, double flapAmp, double flapSpeed, double flapPhase, float alpha,
+                    float u0, float v0, float u1, float v1, int blockLight, int skyLight) {
+        instances.put((float) x).put((float) y).put((float) z);
+        instances.put((float) Math.toRadians(yaw)).put((float) Math.toRadians(pitch)).put((float) Math.toRadians(roll));
+        instances.put((float) scale).put((float) flapAmp).put((float) flapSpeed).put((float) flapPhase);
+        instances.put(alpha);
+        instances.put(u0).put(v0).put(u1).put(v1);
+        instances.put(blockLight).put(skyLight);
+        instanceCount++;
+    }
+
+    /**
+     * Uploads the instances and sets up the program / attribute arrays. Pair with {@link #end()}.
+     *
+     * @param time world time + partial ticks (flap clock)
+     */
+    public void upload(double time) {
+        instances.flip();
+
+        GL20.glUseProgram(program);
+        // keep the clock small: float precision falls apart on long-running worlds
+        GL20.glUniform1f(uTime, (float) (time % 100000.0));
+
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, quadVbo);
+        GL20.glEnableVertexAttribArray(ATTR_CORNER);
+        GL20.glVertexAttribPointer(ATTR_CORNER, 4, GL11.GL_FLOAT, false, 16, 0);
+
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, instanceVbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, instances, GL15.GL_STREAM_DRAW);
+        for (int a = ATTR_POS; a <= ATTR_LIGHT; a++) {
+            GL20.glEnableVertexAttribArray(a);
+            GL33.glVertexAttribDivisor(a, 1);
+        }
+    }
+
+    /**
+     * Draws instances {@code [first, first + count)} with the currently bound texture.
+     */
+    public void draw(int first, int count) {
+        if (count <= 0) return;
+        long base = (long) first * STRIDE;
+        GL20.glVertexAttribPointer(ATTR_POS, 3, GL11.GL_FLOAT, false, STRIDE, base);
+        GL20.glVertexAttribPointer(ATTR_ROT, 3, GL11.GL_FLOAT, false, STRIDE, base + 12);
+        GL20.glVertexAttribPointer(ATTR_ANIM, 4, GL11.GL_FLOAT, false, STRIDE, base + 24);
+        GL20.glVertexAttribPointer(ATTR_ALPHA, 1, GL11.GL_FLOAT, false, STRIDE, base + 40);
+        GL20.glVertexAttribPointer(ATTR_UV, 4, GL11.GL_FLOAT, false, STRIDE, base + 44);
+        GL20.glVertexAttribPointer(ATTR_LIGHT, 2, GL11.GL_FLOAT, false, STRIDE, base + 60);
+        GL31.glDrawArraysInstanced(GL11.GL_TRIANGLE_STRIP, 0, 4, count);
+    }
+
+    /**
+     * Restores the state vanilla expects: no program, no generic arrays or divisors, no bound VBO.
+     */
+    public void end() {
+        for (int a = ATTR_POS; a <= ATTR_LIGHT; a++) {
+            GL33.glVertexAttribDivisor(a, 0);
+            GL20.glDisableVertexAttribArray(a);
+        }
+        GL20.glDisableVertexAttribArray(ATTR_CORNER);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GL20.glUseProgram(0);
+    }
+
+    public int getInstanceCount() {
+        return instanceCount;
+    }
+}
@@ -8,4 +8,18 @@ public class BirdTexture {
     public static ResourceLocation get(ClientBird b) {
         return (b != null) ? b.texture : null;
     }
+
+    /**
+     * Atlas region of the bird's texture (cached on the bird, looked up again after the atlas dropped it).
+     * Null if the texture isn't in the atlas.
+     */
+    public static BirdTextureAtlas.Region region(ClientBird b) {
+        if (b == null) return null;
+        BirdTextureAtlas.Region r = b.atlasRegion;
+        if (r == null || !r.isAlive()) {
+            r = BirdTextureAtlas.INSTANCE.get(b.texture);
+            b.atlasRegion = r;
+        }
+        return r;
+    }
 }
\ No newline at end of file
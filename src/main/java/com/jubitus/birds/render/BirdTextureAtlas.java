@@ -0,0 +1,275 @@
+package com.jubitus.birds.render;
+
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.texture.TextureUtil;
+import net.minecraft.util.ResourceLocation;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs the species textures into a few shared GL textures ("pages"), so the batched renderer can draw every
+ * bird with one bind per page.
+ * <p>
+ * Each texture gets a {@link Region} (page + UV rectangle). Regions are shelf-packed with a 1 texel transparent
+ * border so nearest sampling at the quad edges never picks up a neighbour. Updates are incremental:
+ * <ul>
+ * <li>{@link #put} with unchanged pixels keeps the region where it is (no upload);</li>
+ * <li>a new or changed texture is placed in free page space and only its rectangle is uploaded;</li>
+ * <li>{@link #remove} frees a region; a page is repacked (and re-uploaded) only once half of it is dead.</li>
+ * </ul>
+ * Region objects stay valid across repacks (their UVs are updated in place) until removed, so birds can hold
+ * on to them; {@link Region#isAlive()} tells when to look the texture up again.
+ * <p>
+ * Client thread only. CPU-side bookkeeping happens immediately, GL work is deferred to {@link #flush()}
+ * (called by the renderer).
+ */
+public class BirdTextureAtlas {
+
+    public static final BirdTextureAtlas INSTANCE = new BirdTextureAtlas();
+
+    private static final int PAGE_SIZE = 1024;
+    private static final int BORDER = 1;
+
+    private final Map<ResourceLocation, Region> regions = new HashMap<>();
+    private final List<Page> pages = new ArrayList<>();
+    private final List<Integer> pendingDeletes = new ArrayList<>();
+    private int generation;
+
+    /**
+     * Starts a reload pass: textures not {@link #put} again before {@link #endUpdate()} are dropped.
+     */
+    public void beginUpdate() {
+        generation++;
+    }
+
+    public void endUpdate() {
+        List<ResourceLocation> stale = new ArrayList<>();
+        for (Region r : regions.values()) {
+            if (r.mark != generation) stale.add(r.id);
+        }
+        for (ResourceLocation id : stale) {
+            remove(id);
+        }
+    }
+
+    /**
+     * Adds or replaces the texture {@code id}. Images that don't fit on a page stay out of the atlas; the
+     * renderer then binds their own texture.
+     */
+    public void put(ResourceLocation id, BufferedImage img) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int[] pixels = img.getRGB(0, 0, w, h, null, 0, w);
+
+        Region existing = regions.get(id);
+        if (existing != null) {
+            if (existing.width == w && existing.height == h && Arrays.equals(existing.pixels, pixels)) {
+                existing.mark = generation;
+                return;
+            }
+            remove(id);
+        }
+
+        if (w + 2 * BORDER > PAGE_SIZE || h + 2 * BORDER > PAGE_SIZE) return;
+
+        Region r = new Region(id, w, h, pixels);
+        r.mark = generation;
+        regions.put(id, r);
+        place(r);
+    }
+
+    public void remove(ResourceLocation id) {
+        Region r = regions.remove(id);
+        if (r == null) return;
+        r.alive = false;
+
+        Page page = r.page;
+        r.page = null;
+        page.regions.remove(r);
+        page.deadArea += r.paddedArea();
+
+        if (page.regions.isEmpty()) {
+            pages.remove(page);
+            if (page.glId >= 0) pendingDeletes.add(page.glId);
+        } else if (page.deadArea * 2 > page.usedArea) {
+            repack(page);
+        }
+    }
+
+    /**
+     * @return the region of {@code id}, or null if it isn't in the atlas
+     */
+    public Region get(ResourceLocation id) {
+        return (id != null) ? regions.get(id) : null;
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Uploads pending changes (render thread, GL context current).
+     */
+    public void flush() {
+        for (int id : pendingDeletes) {
+            TextureUtil.deleteTexture(id);
+        }
+        pendingDeletes.clear();
+
+        for (Page page : pages) {
+            if (page.glId < 0) {
+                page.glId = TextureUtil.glGenTextures();
+                TextureUtil.allocateTexture(page.glId, PAGE_SIZE, PAGE_SIZE);
+                page.fullUpload = true;
+            }
+            boolean bound = false;
+            for (Region r : page.regions) {
+                if (r.uploaded && !page.fullUpload) continue;
+                if (!bound) {
+                    GlStateManager.bindTexture(page.glId);
+                    bound = true;
+                }
+                TextureUtil.uploadTextureMipmap(new int[][]{r.paddedPixels()}, r.width + 2 * BORDER,
+                        r.height + 2 * BORDER, r.x, r.y, false, true);
+                r.uploaded = true;
+            }
+            page.fullUpload = false;
+        }
+    }
+
+    private void place(Region r) {
+        for (Page page : pages) {
+            if (page.tryPlace(r)) return;
+        }
+        Page page = new Page();
+        pages.add(page);
+        page.tryPlace(r);
+    }
+
+    /**
+     * Re-packs the live regions of {@code page} from scratch (tallest first). Regions that no longer fit move
+     * to another page.
+     */
+    private void repack(Page page) {
+        List<Region> live = new ArrayList<>(page.regions);
+        live.sort((a, b) -> Integer.compare(b.height, a.height));
+        page.reset();
+        page.fullUpload = true;
+
+        for (Region r : live) {
+            r.uploaded = false;
+            if (!page.tryPlace(r)) place(r);
+        }
+    }
+
+    /**
+     * A texture's place in the atlas. UVs are in [0..1] page space.
+     */
+    public static final class Region {
+        public float u0, v0, u1, v1;
+
+        final ResourceLocation id;
+        final int width, height;
+        final int[] pixels;
+        Page page;
+        int x, y; // padded rectangle origin in texels
+        int mark;
+        boolean uploaded;
+        boolean alive = true;
+
+        Region(ResourceLocation id, int width, int height, int[] pixels) {
+            this.id = id;
+            this.width = width;
+            this.height = height;
+            this.pixels = pixels;
+        }
+
+        public boolean isAlive() {
+            return alive;
+        }
+
+        /**
+         * GL texture holding this region (-1 until the first {@link BirdTextureAtlas#flush()}).
+         */
+        public int getGlTextureId() {
+            return (page != null) ? page.glId : -1;
+        }
+
+        public Page getPage() {
+            return page;
+        }
+
+        int paddedArea() {
+            return (width + 2 * BORDER) * (height + 2 * BORDER);
+        }
+
+        // Pixels plus a transparent border, as uploaded
+        int[] paddedPixels() {
+            int pw = width + 2 * BORDER;
+            int[] out = new int[pw * (height + 2 * BORDER)];
+            for (int row = 0; row < height; row++) {
+                System.arraycopy(pixels, row * width, out, (row + BORDER) * pw + BORDER, width);
+            }
+            return out;
+        }
+
+        void setRect(Page page, int x, int y) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.u0 = (float) (x + BORDER) / PAGE_SIZE;
+            this.v0 = (float) (y + BORDER) / PAGE_SIZE;
+            this.u1 = (float) (x + BORDER + width) / PAGE_SIZE;
+            this.v1 = (float) (y + BORDER + height) / PAGE_SIZE;
+        }
+    }
+
+    /**
+     * One GL texture, filled shelf by shelf (left to right, shelves top to bottom).
+     */
+    public static final class Page {
+        final List<Region> regions = new ArrayList<>();
+        int glId = -1;
+        boolean fullUpload = true;
+        int cursorX, shelfY, shelfH;
+        int usedArea, deadArea;
+
+        public int getGlTextureId() {
+            return glId;
+        }
+
+        void reset() {
+            regions.clear();
+            cursorX = shelfY = shelfH = 0;
+            usedArea = deadArea = 0;
+        }
+
+        boolean tryPlace(Region r) {
+            int pw = r.width + 2 * BORDER;
+            int ph = r.height + 2 * BORDER;
+            int x = cursorX;
+            int y = shelfY;
+            int h = shelfH;
+            if (x + pw > PAGE_SIZE) {
+                x = 0;
+                y += h;
+                h = 0;
+            }
+            if (y + ph > PAGE_SIZE) return false;
+
+            cursorX = x + pw;
+            shelfY = y;
+            shelfH = Math.max(h, ph);
+            usedArea += pw * ph;
+            regions.add(r);
+            r.setRect(this, x, y);
+            r.uploaded = false;
+            return true;
+        }
+    }
+}
@@ -1,39 +1,110 @@
 package com.jubitus.birds.render;
 
-import com.jubitus.birds.client.ClientBird;
+import com.jubitus.birds.client.BirdRenderSnapshot;
+import com.jubitus.birds.client.config.BirdConfig;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ActiveRenderInfo;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
-import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3d;
 import org.lwjgl.opengl.GL11;
 
-import java.util.Collection;
-
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Batched bird renderer.
+ * <p>
+ * Draws from the {@link BirdRenderSnapshot} the simulation publishes each tick, never from the live birds.
+ * Birds are collected once per frame (interpolated position, fog alpha, texture), grouped by GL texture with a
+ * counting sort, and every group goes out as a single {@code GL_QUADS} draw. Species textures live in the
+ * {@link BirdTextureAtlas}, so normally that is one draw per atlas page; textures too big for the atlas are
+ * bound on their own. Yaw/pitch/roll/tilt/flap are applied on the CPU to the quad corners, and alpha + lightmap
+ * travel per vertex ({@code PARTICLE_POSITION_TEX_COLOR_LMAP}), so no GL state changes per bird.
+ * <p>
+ * With {@code instancedRendering} on (and a capable GPU) the same sorted draw list feeds
+ * {@link BirdInstancedRenderer} instead, which does the corner math in a shader.
+ * <p>
+ * With {@code sortFadingBirds} on, fully visible birds are drawn first without blending (alpha-tested, depth
+ * writes on, texture order); only the birds fading into the fog are blended, depth writes off, far to near
+ * ({@link BirdFadeOrder}). Otherwise everything goes out in one blended pass in texture order.
+ * <p>
+ * Birds beyond the billboard distance are only a few pixels wide: they skip the rotation/tilt/flap math and
+ * go into the same runs as camera-facing quads.
+ * <p>
+ * Render thread only; all scratch arrays are reused between frames.
+ */
 public class RenderBird {
 
-    public static void renderAll(Collection<ClientBird> birds, float partialTicks) {
+    // fog alpha at or above this counts as fully visible (opaque bucket)
+    private static final float OPAQUE_ALPHA = 0.99f;
+
+    // Per-frame draw list (index = draw entry; drawRecord = record in the snapshot frame)
+    private static int[] drawRecord = new int[64];
+    private static int[] drawTex = new int[64];
+    private static BirdTextureAtlas.Region[] drawRegion = new BirdTextureAtlas.Region[64];
+    private static float[] drawAlpha = new float[64];
+    private static int[] drawLight = new int[64];
+    private static long[] drawId = new long[64];
+    private static double[] drawDist2 = new double[64];
+    private static boolean[] drawFading = new boolean[64];
+    private static double[] drawX = new double[64], drawY = new double[64], drawZ = new double[64];
+    private static int[] sorted = new int[64];
+    private static int drawCount;
+    private static int opaqueCount;
+    // Draw runs over sorted[]: run r is sorted[runFirst[r] .. runFirst[r + 1]), all with the same texture
+    private static int[] runFirst = new int[65];
+    private static int runCount;
+    private static int opaqueRuns;
+    private static final BirdFadeOrder fadeOrder = new BirdFadeOrder();
+    // Last frame's counts, for the F3 screen
+    private static int lastDrawn, lastFrustumCulled, lastFogCulled, lastDrawCalls;
+
+    // Textures seen this frame (atlas page, or ResourceLocation for non-atlas textures) -> dense index
+    private static final Map<Object, Integer> texIndex = new IdentityHashMap<>();
+    private static Object[] textures = new Object[8];
+    private static int[] texStart = new int[9];
+    private static int texCount;
+
+    private static final BlockPos.MutableBlockPos lightPos = new BlockPos.MutableBlockPos();
+    // quad axes after rotation: wing axis (local X) and body axis (local Z, head = +Z)
+    private static final double[] axisW = new double[3];
+    private static final double[] axisL = new double[3];
+    // billboard setup for this frame: squared start distance and the camera's right / up axes
+    private static double billboardDist2;
+    private static float camRightX, camRightZ, camUpX, camUpY, camUpZ;
+
+    public static void renderAll(BirdRenderSnapshot.Frame birds, float partialTicks) {
         Minecraft mc = Minecraft.getMinecraft();
-        Vec3d camPos = new Vec3d(
-                mc.getRenderManager().viewerPosX,
-                mc.getRenderManager().viewerPosY,
-                mc.getRenderManager().viewerPosZ
-        );
+        double camX = mc.getRenderManager().viewerPosX;
+        double camY = mc.getRenderManager().viewerPosY;
+        double camZ = mc.getRenderManager().viewerPosZ;
+
+        BirdTextureAtlas.INSTANCE.flush();
+        setupBillboards(mc);
+        collect(mc, birds, camX, camY, camZ, partialTicks);
+        lastDrawCalls = 0;
+        if (drawCount == 0) return;
+        boolean split = BirdConfig.sortFadingBirds;
+        sortDrawList(split);
+        lastDrawCalls = runCount;
 
         // ✅ Save current fog enabled state so we don't break the world renderer
         boolean fogWasEnabled = org.lwjgl.opengl.GL11.glIsEnabled(org.lwjgl.opengl.GL11.GL_FOG);
 
         GlStateManager.pushMatrix();
 
-        GlStateManager.enableBlend();
         GlStateManager.tryBlendFuncSeparate(
                 GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA,
                 GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ZERO
         );
+        GlStateManager.enableAlpha();
+        GlStateManager.alphaFunc(GL11.GL_GREATER, 0.1f);
         GlStateManager.disableCull();
 
         GlStateManager.disableLighting();
@@ -41,9 +112,47 @@ public class RenderBird {
 
         // ✅ Only enable fog for our draw, then restore
         GlStateManager.enableFog();
+        GlStateManager.color(1f, 1f, 1f, 1f);
+
+        double t = mc.world.getTotalWorldTime() + partialTicks;
+        Tessellator tess = Tessellator.getInstance();
+        BufferBuilder buf = tess.getBuffer();
 
-        for (ClientBird b : birds) {
-            renderOne(b, camPos, partialTicks);
+        BirdInstancedRenderer gpu = null;
+        if (BirdConfig.instancedRendering && BirdInstancedRenderer.INSTANCE.isAvailable()) {
+            gpu = BirdInstancedRenderer.INSTANCE;
+            fillInstances(gpu, birds, camX, camY, camZ, partialTicks);
+            gpu.upload(t);
+        }
+
+        try {
+            // One draw per run (texture group of the opaque bucket / same-texture stretch of the fading one)
+            for (int run = 0; run < runCount; run++) {
+                if (run == 0 || run == opaqueRuns) {
+                    boolean fadingPass = run >= opaqueRuns;
+                    if (split && !fadingPass) {
+                        GlStateManager.disableBlend();
+                    } else {
+                        GlStateManager.enableBlend();
+                    }
+                    GlStateManager.depthMask(!(split && fadingPass));
+                }
+
+                int first = runFirst[run];
+                int end = runFirst[run + 1];
+                bindGroupTexture(mc, drawTex[sorted[first]]);
+                if (gpu != null) {
+                    gpu.draw(first, end - first);
+                } else {
+                    buf.begin(GL11.GL_QUADS, DefaultVertexFormats.PARTICLE_POSITION_TEX_COLOR_LMAP);
+                    for (int k = first; k < end; k++) {
+                        emitBird(buf, birds, sorted[k], camX, camY, camZ, partialTicks, t);
+                    }
+                    tess.draw();
+                }
+            }
+        } finally {
+            if (gpu != null) gpu.end();
         }
 
         // ✅ Restore fog exactly as it was
@@ -51,152 +160,434 @@ public class RenderBird {
 
         mc.entityRenderer.disableLightmap();
 
+        GlStateManager.depthMask(true);
         GlStateManager.enableCull();
         GlStateManager.disableBlend();
         GlStateManager.popMatrix();
     }
 
+    private static void bindGroupTexture(Minecraft mc, int tex) {
+        if (textures[tex] instanceof BirdTextureAtlas.Page) {
+            // atlas pages are uploaded with nearest filtering once
+            GlStateManager.bindTexture(((BirdTextureAtlas.Page) textures[tex]).getGlTextureId());
+        } else {
+            mc.getTextureManager().bindTexture((ResourceLocation) textures[tex]);
+            GlStateManager.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+            GlStateManager.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+        }
+    }
 
-    private static void renderOne(ClientBird b, Vec3d camPos, float partialTicks) {
-        Minecraft mc = Minecraft.getMinecraft();
-
-        // --- Interpolate position between ticks ---
-        Vec3d p0 = (b.prevPos != null) ? b.prevPos : b.pos;
-        Vec3d p1 = b.pos;
+    /**
+     * GPU path: one instance record per bird in draw order; the runs then become instanced draws over ranges
+     * of the stream. Rotation, tilt and flap happen in the shader.
+     */
+    private static void fillInstances(BirdInstancedRenderer gpu, BirdRenderSnapshot.Frame birds, double camX,
+                                      double camY, double camZ, float partialTicks) {
+        float[] data = birds.data;
+        gpu.begin(drawCount);
+        for (int k = 0; k < drawCount; k++) {
+            int d = sorted[k];
+            int o = drawRecord[d] * BirdRenderSnapshot.STRIDE;
+            BirdTextureAtlas.Region r = drawRegion[d];
+            int light = drawLight[d];
+            if (drawDist2[d] >= billboardDist2) {
+                // negative scale = billboard in the shader; rotation / flap unused
+                gpu.put(drawX[d] - camX, drawY[d] - camY, drawZ[d] - camZ, 0f, 0f, 0f,
+                        -data[o + BirdRenderSnapshot.SCALE], 0.0, 0.0, 0.0,
+                        drawAlpha[d],
+                        (r != null) ? r.u0 : 0f, (r != null) ? r.v0 : 0f, (r != null) ? r.u1 : 1f, (r != null) ? r.v1 : 1f,
+                        light & 0xFFFF, (light >> 16) & 0xFFFF);
+                continue;
+            }
+            gpu.put(drawX[d] - camX, drawY[d] - camY, drawZ[d] - camZ,
+                    lerpAngle(data[o + BirdRenderSnapshot.PREV_YAW], data[o + BirdRenderSnapshot.YAW], partialTicks),
+                    lerpAngle(data[o + BirdRenderSnapshot.PREV_PITCH], data[o + BirdRenderSnapshot.PITCH], partialTicks),
+                    lerpAngle(data[o + BirdRenderSnapshot.PREV_ROLL], data[o + BirdRenderSnapshot.ROLL], partialTicks),
+                    data[o + BirdRenderSnapshot.SCALE],
+                    data[o + BirdRenderSnapshot.FLAP_AMP],
+                    data[o + BirdRenderSnapshot.FLAP_SPEED],
+                    data[o + BirdRenderSnapshot.FLAP_PHASE],
+                    drawAlpha[d],
+                    (r != null) ? r.u0 : 0f, (r != null) ? r.v0 : 0f, (r != null) ? r.u1 : 1f, (r != null) ? r.v1 : 1f,
+                    light & 0xFFFF, (light >> 16) & 0xFFFF);
+        }
+    }
 
-        double ix = p0.x + (p1.x - p0.x) * partialTicks;
-        double iy = p0.y + (p1.y - p0.y) * partialTicks;
-        double iz = p0.z + (p1.z - p0.z) * partialTicks;
+    /**
+     * Fills the draw list with every bird that has a texture and isn't culled. Culling comes first and only
+     * needs the interpolated position: beyond the fog end, or outside the view frustum (box around the quad's
+     * largest extent), nothing else is looked at.
+     */
+    private static void collect(Minecraft mc, BirdRenderSnapshot.Frame birds, double camX, double camY, double camZ,
+                                float partialTicks) {
+        int n = birds.count;
+        float[] data = birds.data;
+        ensureDrawCapacity(n);
+        drawCount = 0;
+        texIndex.clear();
+        texCount = 0;
+        int culledFrustum = 0;
+        int culledFog = 0;
+
+        double fogEnd = fogEndDistance(mc);
+        double fogEnd2 = fogEnd * fogEnd;
+        // Frustum() snapshots the current projection/modelview (camera-relative), so build one per frame
+        Frustum frustum = new Frustum();
+        frustum.setPosition(camX, camY, camZ);
+
+        for (int rec = 0; rec < n; rec++) {
+            int o = rec * BirdRenderSnapshot.STRIDE;
+            // --- Interpolate position between ticks (floats are relative to the frame origin) ---
+            float px = data[o + BirdRenderSnapshot.PREV_X];
+            float py = data[o + BirdRenderSnapshot.PREV_Y];
+            float pz = data[o + BirdRenderSnapshot.PREV_Z];
+            double ix = birds.originX + px + (data[o + BirdRenderSnapshot.X] - px) * partialTicks;
+            double iy = birds.originY + py + (data[o + BirdRenderSnapshot.Y] - py) * partialTicks;
+            double iz = birds.originZ + pz + (data[o + BirdRenderSnapshot.Z] - pz) * partialTicks;
+
+            double dx = ix - camX;
+            double dy = iy - camY;
+            double dz = iz - camZ;
+            if (dx * dx + dy * dy + dz * dz >= fogEnd2) {
+                culledFog++;
+                continue;
+            }
+
+            double r = data[o + BirdRenderSnapshot.RADIUS];
+            if (!frustum.isBoxInFrustum(ix - r, iy - r, iz - r, ix + r, iy + r, iz + r)) {
+                culledFrustum++;
+                continue;
+            }
+
+            ResourceLocation rl = birds.textures[rec];
+            BirdTextureAtlas.Region region = birds.regions[rec];
+            if (region != null && !region.isAlive()) {
+                // atlas was rebuilt since the snapshot was taken
+                region = BirdTextureAtlas.INSTANCE.get(rl);
+                birds.regions[rec] = region;
+            }
+            Object tex = (region != null) ? region.getPage() : rl;
+
+            float a = fogFadeAlpha(mc, camX, camY, camZ, ix, iy, iz);
+            if (a <= 0.01f) { // invisible
+                culledFog++;
+                continue;
+            }
+
+            // ✅ Lightmap brightness from the bird's world position
+            int packedLight = sampleLight(mc, birds, rec, ix, iy, iz);
+
+            Integer ti = texIndex.get(tex);
+            if (ti == null) {
+                ti = texCount;
+                if (texCount == textures.length) {
+                    textures = Arrays.copyOf(textures, texCount * 2);
+                    texStart = Arrays.copyOf(texStart, texCount * 2 + 1);
+                }
+                textures[texCount++] = tex;
+                texIndex.put(tex, ti);
+            }
+
+            int d = drawCount++;
+            drawRecord[d] = rec;
+            drawTex[d] = ti;
+            drawRegion[d] = region;
+            drawAlpha[d] = a;
+            drawId[d] = birds.ids[rec];
+            drawDist2[d] = dx * dx + dy * dy + dz * dz;
+            drawFading[d] = a < OPAQUE_ALPHA;
+            drawLight[d] = packedLight;
+            drawX[d] = ix;
+            drawY[d] = iy;
+            drawZ[d] = iz;
+        }
 
-        double x = ix - camPos.x;
-        double y = iy - camPos.y;
-        double z = iz - camPos.z;
+        lastFrustumCulled = culledFrustum;
+        lastFogCulled = culledFog;
+        lastDrawn = drawCount;
+    }
 
-        ResourceLocation tex = BirdTexture.get(b);
-        if (tex == null) {
-            // No texture => skip drawing rather than crash
-            return;
+    /**
+     * Light at the bird's block. At the heights birds fly it hardly ever changes, so the sample is kept in the
+     * snapshot record and only taken again on a new tick (new snapshot) or when the bird enters another block.
+     */
+    private static int sampleLight(Minecraft mc, BirdRenderSnapshot.Frame birds, int rec,
+                                   double ix, double iy, double iz) {
+        int bx = (int) Math.floor(ix);
+        int by = (int) Math.floor(iy);
+        int bz = (int) Math.floor(iz);
+        if (birds.lightValid[rec] && birds.lightX[rec] == bx && birds.lightY[rec] == by && birds.lightZ[rec] == bz) {
+            return birds.light[rec];
         }
-        mc.getTextureManager().bindTexture(tex);
 
-        GlStateManager.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
-        GlStateManager.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+        lightPos.setPos(bx, by, bz);
+        birds.light[rec] = mc.world.getCombinedLight(lightPos, 0);
+        birds.lightX[rec] = bx;
+        birds.lightY[rec] = by;
+        birds.lightZ[rec] = bz;
+        birds.lightValid[rec] = true;
+        return birds.light[rec];
+    }
 
+    public static int getLastDrawn() {
+        return lastDrawn;
+    }
 
-        GlStateManager.pushMatrix();
-        GlStateManager.translate(x, y, z);
+    public static int getLastDrawCalls() {
+        return lastDrawCalls;
+    }
 
-        double scale = (b.species != null) ? b.species.scale : 0.45;
-        GlStateManager.scale(scale, scale, scale);
+    public static int getLastFrustumCulled() {
+        return lastFrustumCulled;
+    }
 
-        // ✅ "Magie" anti-invisible : incline légèrement le quad vers la caméra
-// Plus c'est loin + plus la caméra est à hauteur similaire => plus ça tilt
-        double cx = camPos.x - ix;
-        double cy = camPos.y - iy;
-        double cz = camPos.z - iz;
+    public static int getLastFogCulled() {
+        return lastFogCulled;
+    }
+
+    /**
+     * Orders the draw list into {@code sorted[]}: the opaque bucket first, counting-sorted by texture, then
+     * (when splitting) the fading bucket far to near. Then cuts it into same-texture runs.
+     */
+    private static void sortDrawList(boolean split) {
+        // Counting sort of the opaque entries by texture index
+        Arrays.fill(texStart, 0, texCount + 1, 0);
+        for (int d = 0; d < drawCount; d++) {
+            if (!split || !drawFading[d]) texStart[drawTex[d] + 1]++;
+        }
+        for (int tex = 0; tex < texCount; tex++) {
+            texStart[tex + 1] += texStart[tex];
+        }
+        opaqueCount = texStart[texCount];
+        // texStart[t] is used as the write cursor
+        int fadingEnd = opaqueCount;
+        for (int d = 0; d < drawCount; d++) {
+            if (!split || !drawFading[d]) {
+                sorted[texStart[drawTex[d]]++] = d;
+            } else {
+                sorted[fadingEnd++] = d;
+            }
+        }
+        if (split) fadeOrder.sort(sorted, opaqueCount, drawCount - opaqueCount, drawId, drawDist2);
+
+        // Runs: a new one wherever the texture changes, and at the opaque/fading boundary
+        if (runFirst.length < drawCount + 1) runFirst = new int[drawCount + 1];
+        runCount = 0;
+        opaqueRuns = 0;
+        for (int k = 0; k < drawCount; k++) {
+            if (k == 0 || k == opaqueCount || drawTex[sorted[k]] != drawTex[sorted[k - 1]]) {
+                if (k == opaqueCount) opaqueRuns = runCount;
+                runFirst[runCount++] = k;
+            }
+        }
+        if (opaqueCount == drawCount) opaqueRuns = runCount;
+        runFirst[runCount] = drawCount;
+    }
+
+    private static void setupBillboards(Minecraft mc) {
+        double dist = BirdConfig.billboardDistance;
+        if (dist == 0) {
+            // automatic: where the fog fade starts
+            double viewDist = mc.gameSettings.renderDistanceChunks * 16.0;
+            dist = isUnderwater(mc) ? viewDist * 0.10 : viewDist * 0.65;
+        }
+        billboardDist2 = (dist > 0) ? dist * dist : Double.POSITIVE_INFINITY;
+
+        // same camera axes vanilla particles use (set up by the world renderer for this frame)
+        camRightX = ActiveRenderInfo.getRotationX();
+        camRightZ = ActiveRenderInfo.getRotationYZ();
+        camUpX = ActiveRenderInfo.getRotationXY();
+        camUpY = ActiveRenderInfo.getRotationZ();
+        camUpZ = ActiveRenderInfo.getRotationXZ();
+    }
 
-        double dist = Math.sqrt(cx * cx + cy * cy + cz * cz);
+    /**
+     * Writes the 4 vertices of one bird (draw entry {@code d}), relative to the camera.
+     */
+    private static void emitBird(BufferBuilder buf, BirdRenderSnapshot.Frame birds, int d,
+                                 double camX, double camY, double camZ, float partialTicks, double t) {
+        float[] data = birds.data;
+        int o = drawRecord[d] * BirdRenderSnapshot.STRIDE;
+        double ix = drawX[d];
+        double iy = drawY[d];
+        double iz = drawZ[d];
+
+        double x = ix - camX;
+        double y = iy - camY;
+        double z = iz - camZ;
+
+        double scale = data[o + BirdRenderSnapshot.SCALE];
+
+        if (drawDist2[d] >= billboardDist2) {
+            emitBillboard(buf, d, x, y, z, scale);
+            return;
+        }
 
-// direction normalisée vers la caméra
+        // ✅ "Magie" anti-invisible : incline légèrement le quad vers la caméra
+        // Plus c'est loin + plus la caméra est à hauteur similaire => plus ça tilt
+        double dist = Math.sqrt(x * x + y * y + z * z);
+
+        // direction normalisée vers la caméra
         double invLen = (dist > 1e-6) ? (1.0 / dist) : 0.0;
-        double dxN = cx * invLen;
-        double dyN = cy * invLen;
-        double dzN = cz * invLen;
+        double dxN = -x * invLen;
+        double dyN = -y * invLen;
+        double dzN = -z * invLen;
 
-// facteur distance: 0 proche, 1 loin (ajuste les chiffres si besoin)
+        // facteur distance: 0 proche, 1 loin (ajuste les chiffres si besoin)
         float distFactor = (float) clamp01((dist - 12.0) / 64.0);
 
-// facteur "horizon": si dy est petit (caméra à même hauteur), on tilt plus
+        // facteur "horizon": si dy est petit (caméra à même hauteur), on tilt plus
         float horizonFactor = 1.0f - (float) Math.min(1.0, Math.abs(dyN));
 
-// force totale
+        // force totale
         float tiltStrength = distFactor * horizonFactor;
 
-// tilt max (en degrés)
+        // tilt max (en degrés)
         float maxTiltDeg = 25.0f;
 
-// petite approximation: on “pousse” le quad vers la caméra
+        // petite approximation: on “pousse” le quad vers la caméra
         float tiltX = (float) (dzN * maxTiltDeg * tiltStrength);
         float tiltZ = (float) (-dxN * maxTiltDeg * tiltStrength);
 
-// Appliquer AVANT yaw/pitch/roll pour que ça marche en "monde"
-        GlStateManager.rotate(tiltZ, 0f, 0f, 1f);
-        GlStateManager.rotate(tiltX, 1f, 0f, 0f);
-
-
-        // ✅ Apply lightmap brightness based on the bird's world position
-        int bx = (int) Math.floor(ix);
-        int by = (int) Math.floor(iy);
-        int bz = (int) Math.floor(iz);
-
-
-        int packedLight = mc.world.getCombinedLight(new BlockPos(bx, by, bz), 0);
+        // --- Interpolate angles too (prevents rotation stepping) ---
+        float yaw = lerpAngle(data[o + BirdRenderSnapshot.PREV_YAW], data[o + BirdRenderSnapshot.YAW], partialTicks);
+        float pitch = lerpAngle(data[o + BirdRenderSnapshot.PREV_PITCH], data[o + BirdRenderSnapshot.PITCH], partialTicks);
+        float roll = lerpAngle(data[o + BirdRenderSnapshot.PREV_ROLL], data[o + BirdRenderSnapshot.ROLL], partialTicks);
+
+        // Same transform the old matrix stack applied, outermost first:
+        // tiltZ (Z), tiltX (X), yaw (Y), pitch (X), roll (Z). Our "paper plane" quad lies in the XZ plane,
+        // forward = +Z (TOP of the PNG = head). Apply innermost first to both quad axes.
+        axisW[0] = 1;
+        axisW[1] = 0;
+        axisW[2] = 0;
+        axisL[0] = 0;
+        axisL[1] = 0;
+        axisL[2] = 1;
+        rotateZ(roll);
+        rotateX(pitch);
+        rotateY(yaw);
+        rotateX(tiltX);
+        rotateZ(tiltZ);
 
-// Lightmap coords are split into 2 shorts
-        int u = packedLight & 0xFFFF;
-        int v = (packedLight >> 16) & 0xFFFF;
+        // Small “flap” / wing wobble: vary width slightly
+        double amp = data[o + BirdRenderSnapshot.FLAP_AMP];
+        double spd = data[o + BirdRenderSnapshot.FLAP_SPEED];
+        double flap = amp * Math.sin((t + data[o + BirdRenderSnapshot.FLAP_PHASE]) * spd);
 
-// Feed lightmap (works in 1.12.x)
-        OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, (float) u, (float) v);
+        double halfW = (1.2 + flap) * scale; // wings (left-right, X)
+        double halfL = 0.7 * scale;          // length (tail->head, Z)
 
+        double wx = axisW[0] * halfW, wy = axisW[1] * halfW, wz = axisW[2] * halfW;
+        double lx = axisL[0] * halfL, ly = axisL[1] * halfL, lz = axisL[2] * halfL;
 
-        // --- Interpolate angles too (prevents rotation stepping) ---
-        float yaw = lerpAngle(b.prevYaw, b.orientation.yawDeg, partialTicks);
-        float pitch = lerpAngle(b.prevPitch, b.orientation.pitchDeg, partialTicks);
-        float roll = lerpAngle(b.prevRoll, b.orientation.rollDeg, partialTicks);
+        // Lightmap coords are split into 2 shorts
+        int packedLight = drawLight[d];
+        int sky = (packedLight >> 16) & 0xFFFF;
+        int block = packedLight & 0xFFFF;
 
+        float a = drawAlpha[d];
 
-        // IMPORTANT:
-        // Our "paper plane" quad will be in the XZ plane (flat).
-        // We define: forward = +Z (this corresponds to the TOP of your PNG = head)
-        // So yaw rotates around Y, pitch tilts around X (nose up/down), roll banks around Z.
-        GlStateManager.rotate(yaw, 0, 1, 0);
-        GlStateManager.rotate(pitch, 1, 0, 0);
-        GlStateManager.rotate(roll, 0, 0, 1);
+        // Texture mapping: v0 at "head" (+Z), v1 at "tail" (-Z); full texture unless it sits in the atlas
+        BirdTextureAtlas.Region r = drawRegion[d];
+        double u0 = (r != null) ? r.u0 : 0, v0 = (r != null) ? r.v0 : 0;
+        double u1 = (r != null) ? r.u1 : 1, v1 = (r != null) ? r.v1 : 1;
 
-        // Small “flap” / wing wobble: vary width slightly
-        // (optional improvement: include partialTicks in time)
-        double t = mc.world.getTotalWorldTime() + partialTicks;
-        double amp = (b.species != null) ? b.species.flapAmplitude : 0.08;
-        double spd = (b.species != null) ? b.species.flapSpeed : 0.35;
-        double flap = amp * Math.sin((t + (b.hashCode() & 255)) * spd);
+        // Left-Head (top-left of PNG)
+        buf.pos(x - wx + lx, y - wy + ly, z - wz + lz).tex(u0, v0).color(1f, 1f, 1f, a).lightmap(sky, block).endVertex();
+        // Right-Head (top-right)
+        buf.pos(x + wx + lx, y + wy + ly, z + wz + lz).tex(u1, v0).color(1f, 1f, 1f, a).lightmap(sky, block).endVertex();
+        // Right-Tail (bottom-right)
+        buf.pos(x + wx - lx, y + wy - ly, z + wz - lz).tex(u1, v1).color(1f, 1f, 1f, a).lightmap(sky, block).endVertex();
+        // Left-Tail (bottom-left)
+        buf.pos(x - wx - lx, y - wy - ly, z - wz - lz).tex(u0, v1).color(1f, 1f, 1f, a).lightmap(sky, block).endVertex();
+    }
 
-        double halfW = 1.2 + flap; // wings (left-right, X)
-        double halfL = 0.7;        // length (tail->head, Z). Increase if bird looks too square.
+    /**
+     * Far tier: camera-facing quad (head = top of the PNG up on screen), no rotation or flap.
+     */
+    private static void emitBillboard(BufferBuilder buf, int d, double x, double y, double z, double scale) {
+        double halfW = 1.2 * scale;
+        double halfL = 0.7 * scale;
+        double rx = camRightX * halfW, rz = camRightZ * halfW;
+        double ux = camUpX * halfL, uy = camUpY * halfL, uz = camUpZ * halfL;
+
+        int packedLight = drawLight[d];
+        int sky = (packedLight >> 16) & 0xFFFF;
+        int block = packedLight & 0xFFFF;
+        float a = drawAlpha[d];
+
+        BirdTextureAtlas.Region r = drawRegion[d];
+        double u0 = (r != null) ? r.u0 : 0, v0 = (r != null) ? r.v0 : 0;
+        double u1 = (r != null) ? r.u1 : 1, v1 = (r != null) ? r.v1 : 1;
+
+        buf.pos(x - rx + ux, y + uy, z - rz + uz).tex(u0, v0).color(1f, 1f, 1f, a).lightmap(sky, block).endVertex();
+        buf.pos(x + rx + ux, y + uy, z + rz + uz).tex(u1, v0).color(1f, 1f, 1f, a).lightmap(sky, block).endVertex();
+        buf.pos(x + rx - ux, y - uy, z + rz - uz).tex(u1, v1).color(1f, 1f, 1f, a).lightmap(sky, block).endVertex();
+        buf.pos(x - rx - ux, y - uy, z - rz - uz).tex(u0, v1).color(1f, 1f, 1f, a).lightmap(sky, block).endVertex();
+    }
 
-        // Quad in XZ plane at y=0
-        // Texture mapping:
-        // - v=0 at "head" (forward +Z)
-        // - v=1 at "tail" (back -Z)
-        // So TOP of PNG points forward (+Z).
-        double zHead = +halfL;
-        double zTail = -halfL;
+    // ---- CPU versions of GlStateManager.rotate (degrees, right-handed) applied to both quad axes ----
 
-        Tessellator tess = Tessellator.getInstance();
-        BufferBuilder buf = tess.getBuffer();
+    private static void rotateX(float deg) {
+        if (deg == 0f) return;
+        double r = Math.toRadians(deg);
+        double c = Math.cos(r), s = Math.sin(r);
+        rotX(axisW, c, s);
+        rotX(axisL, c, s);
+    }
 
-        float a = fogFadeAlpha(mc, camPos, ix, iy, iz);
-        if (a <= 0.01f) { // optional micro-optimization: skip drawing when invisible
-            GlStateManager.popMatrix();
-            return;
-        }
-        GlStateManager.color(1f, 1f, 1f, a);
+    private static void rotateY(float deg) {
+        if (deg == 0f) return;
+        double r = Math.toRadians(deg);
+        double c = Math.cos(r), s = Math.sin(r);
+        rotY(axisW, c, s);
+        rotY(axisL, c, s);
+    }
 
+    private static void rotateZ(float deg) {
+        if (deg == 0f) return;
+        double r = Math.toRadians(deg);
+        double c = Math.cos(r), s = Math.sin(r);
+        rotZ(axisW, c, s);
+        rotZ(axisL, c, s);
+    }
 
-        buf.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX);
+    private static void rotX(double[] v, double c, double s) {
+        double y = v[1] * c - v[2] * s;
+        double z = v[1] * s + v[2] * c;
+        v[1] = y;
+        v[2] = z;
+    }
 
-        // Left-Head (top-left of PNG)
-        buf.pos(-halfW, 0, zHead).tex(0, 0).endVertex();
-        // Right-Head (top-right)
-        buf.pos(+halfW, 0, zHead).tex(1, 0).endVertex();
-        // Right-Tail (bottom-right)
-        buf.pos(+halfW, 0, zTail).tex(1, 1).endVertex();
-        // Left-Tail (bottom-left)
-        buf.pos(-halfW, 0, zTail).tex(0, 1).endVertex();
+    private static void rotY(double[] v, double c, double s) {
+        double x = v[0] * c + v[2] * s;
+        double z = -v[0] * s + v[2] * c;
+        v[0] = x;
+        v[2] = z;
+    }
 
-        tess.draw();
+    private static void rotZ(double[] v, double c, double s) {
+        double x = v[0] * c - v[1] * s;
+        double y = v[0] * s + v[1] * c;
+        v[0] = x;
+        v[1] = y;
+    }
 
-        GlStateManager.popMatrix();
+    private static void ensureDrawCapacity(int n) {
+        if (n <= drawRecord.length) return;
+        int cap = Math.max(n, drawRecord.length + (drawRecord.length >> 1));
+        drawRecord = Arrays.copyOf(drawRecord, cap);
+        drawTex = Arrays.copyOf(drawTex, cap);
+        drawRegion = Arrays.copyOf(drawRegion, cap);
+        drawAlpha = Arrays.copyOf(drawAlpha, cap);
+        drawLight = Arrays.copyOf(drawLight, cap);
+        drawId = Arrays.copyOf(drawId, cap);
+        drawDist2 = Arrays.copyOf(drawDist2, cap);
+        drawFading = Arrays.copyOf(drawFading, cap);
+        drawX = Arrays.copyOf(drawX, cap);
+        drawY = Arrays.copyOf(drawY, cap);
+        drawZ = Arrays.copyOf(drawZ, cap);
+        sorted = Arrays.copyOf(sorted, cap);
     }
 
     private static double clamp01(double v) {
@@ -210,22 +601,34 @@ public class RenderBird {
         return a + delta * t;
     }
 
-    private static float fogFadeAlpha(Minecraft mc, Vec3d camPos, double wx, double wy, double wz) {
-        // distance from camera to bird
-        double dx = wx - camPos.x;
-        double dy = wy - camPos.y;
-        double dz = wz - camPos.z;
-        double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+    private static boolean isUnderwater(Minecraft mc) {
+        return mc.player != null &&
+                mc.player.isInsideOfMaterial(net.minecraft.block.material.Material.WATER);
+    }
 
+    /**
+     * Distance (blocks) beyond which birds are fully fogged out. Also used by the simulation LOD.
+     */
+    public static double fogEndDistance(Minecraft mc) {
         // Approximate vanilla-ish fog range from render distance
         double fogEnd = mc.gameSettings.renderDistanceChunks * 16.0;
+        return isUnderwater(mc) ? fogEnd * 0.35 : fogEnd;
+    }
 
-        boolean underwater = mc.player != null &&
-                mc.player.isInsideOfMaterial(net.minecraft.block.material.Material.WATER);
+    private static float fogFadeAlpha(Minecraft mc, double camX, double camY, double camZ,
+                                      double wx, double wy, double wz) {
+        // distance from camera to bird
+        double dx = wx - camX;
+        double dy = wy - camY;
+        double dz = wz - camZ;
+        double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        double viewDist = mc.gameSettings.renderDistanceChunks * 16.0;
+        boolean underwater = isUnderwater(mc);
 
         // Underwater: much shorter visibility
-        double fogStart = underwater ? fogEnd * 0.10 : fogEnd * 0.65;
-        fogEnd = underwater ? fogEnd * 0.35 : fogEnd;
+        double fogStart = underwater ? viewDist * 0.10 : viewDist * 0.65;
+        double fogEnd = fogEndDistance(mc);
 
         // Convert to [0..1] alpha
         double a = (fogEnd - dist) / (fogEnd - fogStart);
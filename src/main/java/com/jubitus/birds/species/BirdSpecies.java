@@ -5,12 +5,15 @@ import net.minecraft.util.ResourceLocation;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 
 public class BirdSpecies {
 
     public transient String folderName = "unknown";
     public transient String soundKey = "unknown";
+    // Position in BirdSpeciesRegistry (spawn descriptors refer to species by index)
+    public transient int registryIndex = -1;
 
     // NEW: per-type sound tuning blocks (in JSON)
     public SoundSettings soundSingle = null;
@@ -149,6 +152,10 @@ public class BirdSpecies {
      */
     public OverrideBlock night = new OverrideBlock();
 
+    // Cached day/night views (rebuilt only if the override block instance is replaced, e.g. config reload)
+    private transient BirdSpeciesView dayView;
+    private transient BirdSpeciesView nightView;
+
     public void clampAndFix() {
 
         // Sounds
@@ -201,7 +208,13 @@ public class BirdSpecies {
 
     public BirdSpeciesView viewForTime(boolean isDay) {
         OverrideBlock o = isDay ? day : night;
-        return new BirdSpeciesView(this, o);
+        BirdSpeciesView v = isDay ? dayView : nightView;
+        if (v == null || v.source != o) {
+            v = new BirdSpeciesView(this, o);
+            if (isDay) dayView = v;
+            else nightView = v;
+        }
+        return v;
     }
 
 
@@ -299,9 +312,16 @@ public class BirdSpecies {
     public static class BirdSpeciesView {
         private final BirdSpecies base;
         private final OverrideBlock o;
+        // the override block this view was built from (may be null), used for cache invalidation
+        private final OverrideBlock source;
+
+        // cached per-type sound views (fields are still read live, only the wrappers are reused)
+        private SoundView singleSound;
+        private SoundView flockSound;
 
         public BirdSpeciesView(BirdSpecies base, OverrideBlock o) {
             this.base = base;
+            this.source = o;
             this.o = (o != null) ? o : new OverrideBlock();
         }
 
@@ -324,13 +344,51 @@ public class BirdSpecies {
          */
         public SoundView sound(BirdCallType type) {
             if (type == BirdCallType.FLOCK) {
-                SoundOverride ov = (o.soundFlock != null) ? o.soundFlock : null;
-                return new SoundView(base.soundFlock, ov);
+                SoundView sv = flockSound;
+                if (sv == null || sv.rawBase != base.soundFlock || sv.rawOverride != o.soundFlock) {
+                    sv = new SoundView(base.soundFlock, o.soundFlock);
+                    flockSound = sv;
+                }
+                return sv;
             }
 
             // SINGLE: allow legacy day/night override fields as a fallback if soundSingle override block is missing
-            SoundOverride ov = (o.soundSingle != null) ? o.soundSingle : legacySingleOverride(o);
-            return new SoundView(base.soundSingle, ov);
+            SoundView sv = singleSound;
+            if (sv != null && sv.rawBase == base.soundSingle) {
+                if (o.soundSingle != null) {
+                    if (sv.rawOverride == o.soundSingle) return sv;
+                } else if (sv.legacy && legacyMatches(sv.rawOverride, o)) {
+                    return sv;
+                }
+            }
+
+            if (o.soundSingle != null) {
+                sv = new SoundView(base.soundSingle, o.soundSingle);
+            } else {
+                sv = new SoundView(base.soundSingle, legacySingleOverride(o));
+                sv.legacy = true;
+            }
+            singleSound = sv;
+            return sv;
+        }
+
+        private static boolean legacyMatches(SoundOverride so, OverrideBlock o) {
+            if (so == null) {
+                return o.soundPitch == null &&
+                        o.soundVolume == null &&
+                        o.soundBaseIntervalTicks == null &&
+                        o.soundRandomness == null &&
+                        o.soundMaxDistance == null &&
+                        o.soundFadeStart == null &&
+                        o.soundFadePower == null;
+            }
+            return Objects.equals(so.soundPitch, o.soundPitch) &&
+                    Objects.equals(so.soundVolume, o.soundVolume) &&
+                    Objects.equals(so.soundBaseIntervalTicks, o.soundBaseIntervalTicks) &&
+                    Objects.equals(so.soundRandomness, o.soundRandomness) &&
+                    Objects.equals(so.soundMaxDistance, o.soundMaxDistance) &&
+                    Objects.equals(so.soundFadeStart, o.soundFadeStart) &&
+                    Objects.equals(so.soundFadePower, o.soundFadePower);
         }
 
         private static SoundOverride legacySingleOverride(OverrideBlock o) {
@@ -573,8 +631,14 @@ public class BirdSpecies {
     public static class SoundView {
         private final SoundSettings base;
         private final SoundOverride o;
+        // raw (possibly null) inputs, used by BirdSpeciesView to decide whether the cached view is still valid
+        private final SoundSettings rawBase;
+        private final SoundOverride rawOverride;
+        private boolean legacy;
 
         public SoundView(SoundSettings base, SoundOverride o) {
+            this.rawBase = base;
+            this.rawOverride = o;
             this.base = (base != null) ? base : new SoundSettings();
             this.o = (o != null) ? o : new SoundOverride();
         }
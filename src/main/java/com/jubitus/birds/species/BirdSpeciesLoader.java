@@ -4,8 +4,10 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 import com.jubitus.birds.JubitusBirds;
+import com.jubitus.birds.client.BirdManager;
 import com.jubitus.birds.client.sound.BirdCallType;
 import com.jubitus.birds.client.sound.BirdSoundSystem;
+import com.jubitus.birds.render.BirdTextureAtlas;
 import com.jubitus.jubitusbirds.Tags;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.texture.DynamicTexture;
@@ -29,13 +31,17 @@ public class BirdSpeciesLoader {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
     public static void loadAllSpecies() {
+        // Species are read by the simulation; don't swap them under a running async step
+        if (BirdManager.INSTANCE != null) BirdManager.INSTANCE.awaitSimulation();
         BirdSpeciesRegistry.clear();
         BirdSoundSystem.clearAllSpeciesSounds(); // IMPORTANT: avoid stale keys after reload
-
+        // Unchanged textures keep their atlas spot; anything not loaded again is dropped at the end
+        BirdTextureAtlas.INSTANCE.beginUpdate();
 
         Path root = getRootConfigDir();
         if (!Files.exists(root)) {
             JubitusBirds.LOGGER.warn("[JubitusBirds] Species folder does not exist yet: {}", root.toAbsolutePath());
+            BirdTextureAtlas.INSTANCE.endUpdate();
             return;
         }
 
@@ -115,6 +121,7 @@ public class BirdSpeciesLoader {
         } catch (IOException e) {
             JubitusBirds.LOGGER.error("[JubitusBirds] Failed scanning default_species folder.", e);
         }
+        BirdTextureAtlas.INSTANCE.endUpdate();
 
         if (BirdSpeciesRegistry.all().isEmpty()) {
             JubitusBirds.LOGGER.error("[JubitusBirds] No default_species loaded! Birds will not spawn.");
@@ -235,6 +242,8 @@ public class BirdSpeciesLoader {
 
             // This must run when the texture manager exists (we moved loadAllSpecies() to init)
             Minecraft.getMinecraft().getTextureManager().loadTexture(rl, dyn);
+            // Birds render from the atlas; the standalone texture stays for the GUI previews
+            BirdTextureAtlas.INSTANCE.put(rl, img);
 
             return rl;
 
@@ -9,13 +9,33 @@ import java.util.*;
 public class BirdSpeciesRegistry {
 
     private static final Map<String, BirdSpecies> BY_NAME = new LinkedHashMap<>();
+    private static final List<BirdSpecies> BY_INDEX = new ArrayList<>();
+    // Eligible species per biome, [0] = night, [1] = day; rebuilt lazily after any registry change
+    private static final Map<Biome, Eligible[]> ELIGIBLE = new IdentityHashMap<>();
 
     public static void clear() {
         BY_NAME.clear();
+        BY_INDEX.clear();
+        ELIGIBLE.clear();
     }
 
     public static void register(BirdSpecies s) {
-        BY_NAME.put(s.name.toLowerCase(Locale.ROOT), s);
+        ELIGIBLE.clear();
+        BirdSpecies old = BY_NAME.put(s.name.toLowerCase(Locale.ROOT), s);
+        if (old != null) {
+            s.registryIndex = old.registryIndex;
+            BY_INDEX.set(old.registryIndex, s);
+        } else {
+            s.registryIndex = BY_INDEX.size();
+            BY_INDEX.add(s);
+        }
+    }
+
+    /**
+     * @return the species registered at {@code index} ({@link BirdSpecies#registryIndex}), or null
+     */
+    public static BirdSpecies byIndex(int index) {
+        return (index >= 0 && index < BY_INDEX.size()) ? BY_INDEX.get(index) : null;
     }
 
     public static Collection<BirdSpecies> all() {
@@ -23,33 +43,54 @@ public class BirdSpeciesRegistry {
     }
 
 
+    /**
+     * Weighted random species for {@code biome}: one roll and a binary search over the biome's precomputed
+     * cumulative weights (the biome rules run once per biome and day/night, not per pick).
+     */
     public static BirdSpecies pickForBiome(Biome biome, Random rng, boolean isDay) {
         if (biome == null) return null;
 
-        String biomeId = (biome.getRegistryName() != null) ? biome.getRegistryName().toString() : "";
+        Eligible e = eligible(biome, isDay);
+        if (e.species.length == 0) return null;
 
-        List<BirdSpecies> allowed = new ArrayList<>();
-        double totalW = 0.0;
+        double roll = rng.nextDouble() * e.total;
+        int i = Arrays.binarySearch(e.cumulative, roll);
+        if (i < 0) i = -i - 1; // first entry whose cumulative weight exceeds the roll
+        return e.species[Math.min(i, e.species.length - 1)];
+    }
+
+    private static Eligible eligible(Biome biome, boolean isDay) {
+        Eligible[] pair = ELIGIBLE.get(biome);
+        if (pair == null) {
+            pair = new Eligible[2];
+            ELIGIBLE.put(biome, pair);
+        }
+        int k = isDay ? 1 : 0;
+        if (pair[k] == null) pair[k] = buildEligible(biome, isDay);
+        return pair[k];
+    }
 
+    private static Eligible buildEligible(Biome biome, boolean isDay) {
+        List<BirdSpecies> allowed = new ArrayList<>();
         for (BirdSpecies s : BY_NAME.values()) {
             if (s == null || !s.enabled) continue;
             if (!isBiomeAllowed(s, biome)) continue;
             if (s.spawnWeight <= 0) continue;
             if (isDay && !s.canSpawnAtDay) continue;
             if (!isDay && !s.canSpawnAtNight) continue;
-
             allowed.add(s);
-            totalW += s.spawnWeight;
         }
 
-        if (allowed.isEmpty()) return null;
-
-        double roll = rng.nextDouble() * totalW;
-        for (BirdSpecies s : allowed) {
-            roll -= s.spawnWeight;
-            if (roll <= 0) return s;
+        Eligible e = new Eligible(allowed.size());
+        double totalW = 0.0;
+        for (int i = 0; i < e.species.length; i++) {
+            BirdSpecies s = allowed.get(i);
+            totalW += s.spawnWeight;
+            e.species[i] = s;
+            e.cumulative[i] = totalW;
         }
-        return allowed.get(allowed.size() - 1);
+        e.total = totalW;
+        return e;
     }
 
     private static boolean isBiomeAllowed(BirdSpecies s, Biome biome) {
@@ -137,5 +178,15 @@ public class BirdSpeciesRegistry {
         return true;
     }
 
+    private static final class Eligible {
+        final BirdSpecies[] species;
+        // cumulative[i] = sum of the weights of species[0..i]
+        final double[] cumulative;
+        double total;
 
+        Eligible(int n) {
+            species = new BirdSpecies[n];
+            cumulative = new double[n];
+        }
+    }
 }